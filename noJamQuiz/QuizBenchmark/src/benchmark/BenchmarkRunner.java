@@ -0,0 +1,29 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// 서버 핫패스 JMH 벤치마크 실행기
+// 반복 횟수와 fork 수는 각 벤치마크 클래스의 어노테이션에 고정해 두었으므로 누가 돌려도 같은 조건으로 측정된다.
+// QuizDataDAO가 src/Data/ 상대 경로로 파일을 읽으므로 작업 디렉터리는 noJamQuiz/QuizServer 로 두고 실행한다.
+//
+// 사용 예: java benchmark.BenchmarkRunner                       전체 실행, 결과는 jmh-result.json
+//          java benchmark.BenchmarkRunner RoomBroadcast gc      이름에 RoomBroadcast가 들어간 것만, GC 프로파일러 포함
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .shouldFailOnError(true);
+        if (args.length > 1 && args[1].equals("gc")) {
+            builder.addProfiler("gc");     // B/op(할당량)도 같이 본다
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
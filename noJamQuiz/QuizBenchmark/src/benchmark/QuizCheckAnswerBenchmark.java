@@ -0,0 +1,51 @@
+package benchmark;
+
+import model.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Quiz.checkAnswer: 답변이 올 때마다 방 스레드에서 부르는 채점
+// 유형마다 맞는 답과 틀린 답을 번갈아 넣는다 (객관식은 번호 파싱 실패 경로도 포함).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dfile.encoding=UTF-8"})
+@State(Scope.Thread)
+public class QuizCheckAnswerBenchmark {
+    @Param({"OX", "MULTIPLE_CHOICE", "SHORT_ANSWER"})
+    public Quiz.QuizType type;
+
+    private Quiz quiz;
+    private String[] answers;
+    private int next;
+
+    @Setup
+    public void setup() {
+        next = 0;
+        switch (type) {
+            case OX:
+                quiz = new Quiz("지구는 둥글다.", "O", Quiz.QuizType.OX, "통합");
+                answers = new String[]{"o", "X"};
+                break;
+            case MULTIPLE_CHOICE:
+                quiz = new Quiz("대한민국의 수도는?", "서울", new String[]{"부산", "서울", "대구", "광주"},
+                        Quiz.QuizType.MULTIPLE_CHOICE, "통합");
+                answers = new String[]{"2", "3", "서울"};
+                break;
+            default:
+                quiz = new Quiz("여수엑스포 기간에 임시 개통된 다리의 이름은?", "이순신",
+                        Quiz.QuizType.SHORT_ANSWER, "통합");
+                answers = new String[]{" 이순신 ", "거북선"};
+                break;
+        }
+    }
+
+    @Benchmark
+    public boolean checkAnswer() {
+        String answer = answers[next];
+        next = next + 1 == answers.length ? 0 : next + 1;
+        return quiz.checkAnswer(answer);
+    }
+}
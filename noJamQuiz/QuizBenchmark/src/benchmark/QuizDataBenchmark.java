@@ -0,0 +1,42 @@
+package benchmark;
+
+import model.QuizDataDAO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// QuizDataDAO.loadQuiz: 일반 모드 게임을 시작할 때마다 문제 파일을 읽고 섞는 비용
+// 작업 디렉터리가 noJamQuiz/QuizServer 여야 src/Data/Quiz1.dat 을 찾는다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dfile.encoding=UTF-8"})
+@State(Scope.Thread)
+public class QuizDataBenchmark {
+    private PrintStream console;
+
+    @Setup
+    public void setup() {
+        if (new QuizDataDAO().loadQuiz(1)) {
+            throw new IllegalStateException("문제 파일을 읽지 못했습니다. 작업 디렉터리를 noJamQuiz/QuizServer 로 두세요.");
+        }
+        // loadQuiz의 안내 출력이 측정을 왜곡하지 않도록 버린다
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public QuizDataDAO loadQuiz() {
+        QuizDataDAO quizData = new QuizDataDAO();
+        quizData.loadQuiz(1);
+        return quizData;
+    }
+}
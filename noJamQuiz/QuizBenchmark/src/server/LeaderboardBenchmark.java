@@ -0,0 +1,74 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 게임 종료 순위 계산 (GameManager.processEndGame → sendFinalResults)
+// 순위는 게임 중 Leaderboard에 계속 반영되므로, 종료 시 비용은 동점자 확인과 상위 K명 추출, 개인 순위 조회다.
+// 점수 갱신(add) 비용도 함께 잰다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dfile.encoding=UTF-8"})
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+    private static final int QUESTIONS = 10;
+    private static final int MAX_POINTS = 20;     // Quiz.calculateScore 최대값 (배점 10, 시간 보너스 최대 100%)
+    // GameManager의 대형 방 기준과 같게 둔다
+    private static final int LARGE_ROOM_THRESHOLD = 20;
+    private static final int LARGE_ROOM_RESULT_COUNT = 10;
+
+    @Param({"8", "100", "1000"})
+    public int players;
+
+    private Leaderboard leaderboard;
+    private int[] slots;
+    private int next;
+
+    @Setup
+    public void setup() {
+        // 시드를 고정해 매번 같은 점수 분포로 잰다
+        Random random = new Random(42);
+        leaderboard = new Leaderboard(players, QUESTIONS * MAX_POINTS);
+        for (int q = 0; q < QUESTIONS; q++) {
+            for (int slot = 0; slot < players; slot++) {
+                if (random.nextInt(3) == 0) {
+                    leaderboard.add(slot, 10 + random.nextInt(MAX_POINTS - 9));
+                }
+            }
+        }
+        slots = new int[1024];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = random.nextInt(players);
+        }
+    }
+
+    @Benchmark
+    public void endGameRanking(Blackhole blackhole) {
+        blackhole.consume(leaderboard.topTiedSlots());
+        int limit = players >= LARGE_ROOM_THRESHOLD ? LARGE_ROOM_RESULT_COUNT : players;
+        blackhole.consume(leaderboard.topK(limit, 1));
+    }
+
+    @Benchmark
+    public void personalRanks(Blackhole blackhole) {
+        // 대형 방에서는 종료 시 모든 플레이어에게 자기 순위를 따로 보낸다
+        for (int slot = 0; slot < players; slot++) {
+            blackhole.consume(leaderboard.rankOf(slot));
+        }
+    }
+
+    @Benchmark
+    public int scoreUpdate() {
+        // 정답 한 번에 해당하는 갱신. 점수를 올렸다 되돌려 분포가 변하지 않게 한다.
+        int slot = slots[next];
+        next = (next + 1) & (slots.length - 1);
+        leaderboard.add(slot, 15);
+        leaderboard.add(slot, -15);
+        return leaderboard.topScore();
+    }
+}
@@ -0,0 +1,49 @@
+package server;
+
+import model.Room;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 수신 메시지 한 건의 처리: Opcode 판별 → QuizServer.handleMessage → 필드 파싱 → 방 조회 → 응답
+// ClientHandler 읽기 스레드가 메시지마다 하는 일을 소켓 없이 그대로 재현한다.
+// 방에는 8명이 있고 진행 중인 게임은 없으므로 ANSWER는 방 조회까지만, 채팅은 8명 팬아웃까지 간다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dfile.encoding=UTF-8"})
+@State(Scope.Benchmark)
+public class MessageDispatchBenchmark {
+    @Param({"ANSWER:3", "[플레이어2] 안녕하세요", "JOIN_ROOM:1", "START_GAME:1", "RPS_CHOICE:ROCK"})
+    public String message;
+
+    private QuizServer server;
+    private SinkClient sender;
+
+    @Setup
+    public void setup() {
+        server = new QuizServer(0);
+        Room room = server.createRoom("방", "통합", 8, 1, "플레이어1", 5, 30);
+        server.attachSession(new SinkClient(server, 1, "플레이어1"));
+        for (int sessionId = 2; sessionId <= 8; sessionId++) {
+            SinkClient client = new SinkClient(server, sessionId, "플레이어" + sessionId);
+            server.attachSession(client);
+            server.joinRoom(room.getRoomId(), sessionId, client.getPlayerName());
+            if (sessionId == 2) {
+                sender = client;    // 방장이 아니고 방이 가득 차 있으므로 JOIN_ROOM, START_GAME은 실패 응답 경로
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.getLog().close();
+    }
+
+    @Benchmark
+    public long handleMessage() {
+        server.handleMessage(sender, Opcode.of(message), message);
+        return sender.received;
+    }
+}
@@ -0,0 +1,77 @@
+package server;
+
+import model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// 방 목록 방송(QuizServer.broadcastRoomList)과 방 안 팬아웃(QuizServer.broadcastToRoom)
+// 방 수, 로비 접속자 수, 방 인원을 바꿔 가며 메시지 하나를 만들어 모두에게 넣는 비용을 잰다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Dfile.encoding=UTF-8"})
+@State(Scope.Benchmark)
+public class RoomBroadcastBenchmark {
+    @Param({"10", "100", "1000"})
+    public int rooms;
+
+    @Param({"100"})
+    public int lobbyClients;
+
+    @Param({"8", "100", "1000"})
+    public int roomSize;
+
+    private QuizServer server;
+    private SinkClient[] lobby;
+    private int bigRoomId;
+
+    @Setup
+    public void setup() {
+        server = new QuizServer(0);
+        int sessionId = 1;
+        // 방장만 있는 방 rooms-1개 + 인원이 찬 방 하나
+        for (int r = 0; r < rooms - 1; r++) {
+            server.createRoom("방" + r, "통합", 8, sessionId, "방장" + sessionId, 5, 30);
+            sessionId++;
+        }
+        Room big = server.createRoom("큰 방", "통합", roomSize, sessionId, "플레이어" + sessionId, 5, 30);
+        bigRoomId = big.getRoomId();
+        server.attachSession(new SinkClient(server, sessionId, "플레이어" + sessionId));
+        sessionId++;
+        for (int p = 1; p < roomSize; p++, sessionId++) {
+            server.attachSession(new SinkClient(server, sessionId, "플레이어" + sessionId));
+            server.joinRoom(bigRoomId, sessionId, "플레이어" + sessionId);
+        }
+        // 로비 방송은 방에 들어가지 않은 접속자도 모두 받는다
+        lobby = new SinkClient[lobbyClients];
+        for (int i = 0; i < lobbyClients; i++, sessionId++) {
+            lobby[i] = new SinkClient(server, sessionId, "대기" + sessionId);
+            server.attachSession(lobby[i]);
+            server.addClient(lobby[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.getLog().close();
+    }
+
+    @Benchmark
+    public void broadcastRoomList(Blackhole blackhole) {
+        server.broadcastRoomList();
+        blackhole.consume(lobby[0].chars);
+    }
+
+    @Benchmark
+    public void broadcastToRoom() {
+        server.broadcastToRoom(bigRoomId, "SCORE:플레이어7:120");
+    }
+
+    @Benchmark
+    public void broadcastToRoomDroppable() {
+        server.broadcastToRoom(bigRoomId, "[플레이어7] 이 문제 어렵네요", Delivery.DROPPABLE);
+    }
+}
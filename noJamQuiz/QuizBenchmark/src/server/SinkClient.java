@@ -0,0 +1,25 @@
+package server;
+
+import java.util.List;
+
+// 소켓 없이 받은 메시지 수와 글자 수만 세는 세션 (벤치마크용)
+// 송신 스레드와 소켓 쓰기를 빼고 서버 쪽 메시지 생성과 팬아웃 비용만 재기 위해 쓴다.
+class SinkClient extends ClientHandler {
+    long received;
+    long chars;
+
+    SinkClient(QuizServer server, int sessionId, String playerName) {
+        super(server, sessionId, playerName);
+    }
+
+    @Override
+    protected void deliver(String message, Delivery delivery) {
+        received++;
+        chars += message.length();
+    }
+
+    @Override
+    protected void deliverBatch(List<String> messages, Delivery delivery) {
+        deliver(messages.size() == 1 ? messages.get(0) : MessageBatch.encode(messages), delivery);
+    }
+}
@@ -22,6 +22,13 @@ public class ClientGUI extends JPanel {
     private JButton startButton;
     private JLabel timerLabel;
     private JLabel scoreLabel;
+    private RPSPanel rpsPanel;          // 동점자 가위바위보 창 (재경기 시 재사용)
+
+    // 서버가 보낸 마감 시각으로 남은 시간을 직접 계산해서 표시한다
+    private Timer countdownTimer;
+    private long quizDeadline;          // 서버 시계 기준 마감 시각
+    private long clockOffset;           // 서버 시각 - 내 시각 (추정치)
+    private boolean clockSynced;
 
     private static final Color PRIMARY_COLOR = new Color(70, 130, 180);
     private static final Color SECONDARY_COLOR = new Color(176, 196, 222);
@@ -35,6 +42,7 @@ public class ClientGUI extends JPanel {
         setBorder(new EmptyBorder(15, 15, 15, 15));
         setBackground(BACKGROUND_COLOR);
         initComponents();
+        countdownTimer = new Timer(200, e -> updateCountdown());
     }
 
     private void initComponents() {
@@ -194,14 +202,14 @@ public class ClientGUI extends JPanel {
     }
 
     public void displayMessage(String message) {
-        SwingUtilities.invokeLater(() -> {
-            String content = message;
-            String roomPrefix = "[방 1] ";
-            if (content.startsWith(roomPrefix)) {
-                content = content.substring(roomPrefix.length());
-            }
+        int start = MessageType.contentStart(message);
+        displayMessage(message, MessageType.of(message, start), start);
+    }
 
-            if (content.equals("SELECT_MODE")) {
+    // 종류는 QuizClient가 이미 판별해서 넘긴다
+    public void displayMessage(String message, MessageType type, int start) {
+        SwingUtilities.invokeLater(() -> {
+            if (type == MessageType.SELECT_MODE) {
                 Object[] options = {"일반 모드", "GPT 모드"};
                 String[] descriptions = {
                         "서버에 저장된 일반 문제를 사용합니다.",
@@ -227,16 +235,30 @@ public class ClientGUI extends JPanel {
                 return;
             }
 
-            if (content.startsWith("QUIZ:")) {
-                String quizContent = content.substring("QUIZ:".length());
-                quizDisplay.setText(quizContent);
+            if (type == MessageType.QUIZ) {
+                // QUIZ:<마감시각>,<서버시각>:<문제>
+                int argStart = type.argStart(start);
+                int headerEnd = message.indexOf(':', argStart);
+                int comma = message.indexOf(',', argStart);
+                int textStart = argStart;
+                if (comma != -1 && comma < headerEnd) {
+                    try {
+                        long deadline = Long.parseLong(message, argStart, comma, 10);
+                        long serverNow = Long.parseLong(message, comma + 1, headerEnd, 10);
+                        syncClock(serverNow);
+                        startCountdown(deadline);
+                        textStart = headerEnd + 1;
+                    } catch (NumberFormatException e) {
+                        System.err.println("마감 시각 파싱 오류: " + e.getMessage());
+                    }
+                }
+                quizDisplay.setText(message.substring(textStart));
                 return;
             }
 
-            if (content.startsWith("TIME:")) {
+            if (type == MessageType.TIME) {
                 try {
-                    String timeStr = content.substring("TIME:".length());
-                    int seconds = Integer.parseInt(timeStr);
+                    int seconds = Integer.parseInt(message, type.argStart(start), message.length(), 10);
                     timerLabel.setText("남은 시간: " + seconds + "초");
                 } catch (NumberFormatException e) {
                     System.err.println("타이머 파싱 오류: " + e.getMessage());
@@ -244,14 +266,14 @@ public class ClientGUI extends JPanel {
                 return;
             }
 
-            if (content.startsWith("SCORE:")) {
-                try {
-                    String[] parts = content.substring("SCORE:".length()).split(":");
-                    if (parts.length == 2 && parts[0].equals(playerName)) {
-                        scoreLabel.setText("점수: " + parts[1]);
-                    }
-                } catch (Exception e) {
-                    System.err.println("점수 파싱 오류: " + e.getMessage());
+            if (type == MessageType.SCORE) {
+                // SCORE:<이름>:<점수>
+                int nameStart = type.argStart(start);
+                int separator = message.indexOf(':', nameStart);
+                if (separator != -1 && message.indexOf(':', separator + 1) == -1
+                        && separator - nameStart == playerName.length()
+                        && message.startsWith(playerName, nameStart)) {
+                    scoreLabel.setText("점수: " + message.substring(separator + 1));
                 }
                 return;
             }
@@ -261,18 +283,132 @@ public class ClientGUI extends JPanel {
         });
     }
 
+    // 서버시각 - 수신시각은 실제 오프셋보다 전송 지연만큼 작게 나오므로, 가장 큰 값이 실제에 가장 가깝다
+    private void syncClock(long serverNow) {
+        long sample = serverNow - System.currentTimeMillis();
+        if (!clockSynced || sample > clockOffset) {
+            clockOffset = sample;
+            clockSynced = true;
+        }
+    }
+
+    private void startCountdown(long deadline) {
+        quizDeadline = deadline;
+        updateCountdown();
+        countdownTimer.start();
+    }
+
+    private void updateCountdown() {
+        long remainingMillis = quizDeadline - (System.currentTimeMillis() + clockOffset);
+        if (remainingMillis <= 0) {
+            countdownTimer.stop();
+            timerLabel.setText("남은 시간: 0초");
+            return;
+        }
+        timerLabel.setText("남은 시간: " + ((remainingMillis + 999) / 1000) + "초");
+    }
+
     public void startRPSGame(List<String> players) {
-        RPSPanel rpsPanel = new RPSPanel(null, players, playerName, client);
+        if (rpsPanel != null && rpsPanel.isDisplayable()) {
+            rpsPanel.startNextRound(players);
+            return;
+        }
+        rpsPanel = new RPSPanel(null, players, playerName, client);
         rpsPanel.setVisible(true);
     }
 
+    public void closeRPSPanel() {
+        if (rpsPanel != null) {
+            rpsPanel.dispose();
+            rpsPanel = null;
+        }
+    }
+
+    // 관전 중에는 답변 입력과 게임 시작을 막는다
+    public void setSpectating(boolean spectating) {
+        SwingUtilities.invokeLater(() -> {
+            answerField.setEnabled(!spectating);
+            submitButton.setEnabled(!spectating);
+            startButton.setEnabled(!spectating);
+            scoreLabel.setText(spectating ? "관전 중" : "점수: 0");
+        });
+    }
+
+    // SPECTATE:<S|D>:<서버시각>\n키=값... 스냅샷(S)이든 델타(D)든 들어온 값만 화면에 반영한다
+    public void applySpectatorUpdate(String message) {
+        String[] lines = message.split("\n");
+        String[] header = lines[0].split(":");
+        if (header.length < 3) {
+            return;
+        }
+        try {
+            syncClock(Long.parseLong(header[2]));
+        } catch (NumberFormatException e) {
+            System.err.println("관전 피드 파싱 오류: " + e.getMessage());
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            int eq = lines[i].indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = lines[i].substring(0, eq);
+            String value = unescapeFeedValue(lines[i].substring(eq + 1));
+            switch (key) {
+                case "question":
+                    int newline = value.indexOf('\n');
+                    quizDisplay.setText(newline < 0 ? value
+                            : "[문제 " + value.substring(0, newline) + "]\n" + value.substring(newline + 1));
+                    break;
+                case "deadline":
+                    if (value.isEmpty()) {
+                        countdownTimer.stop();
+                        timerLabel.setText("남은 시간: --");
+                    } else {
+                        startCountdown(Long.parseLong(value));
+                    }
+                    break;
+                case "standings":
+                    if (!value.isEmpty()) {
+                        answerDisplay.append("현재 순위: " + value + "\n");
+                    }
+                    break;
+                case "status":
+                    answerDisplay.append(value + "\n");
+                    break;
+                case "result":
+                    answerDisplay.append("최종 결과: " + (value.isEmpty() ? "정답자 없음" : value) + "\n");
+                    break;
+                default:
+                    break;
+            }
+        }
+        answerDisplay.setCaretPosition(answerDisplay.getDocument().getLength());
+    }
+
+    private static String unescapeFeedValue(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
     public void showGameResult(Map<String, Integer> scores, boolean rpsDecided) {
-        GameResultPanel resultPanel = new GameResultPanel(client.getMainFrame(), scores, playerName, client, rpsDecided);
+        GameResultPanel resultPanel = new GameResultPanel(client.getMainFrame(), scores, playerName, rpsDecided);
         resultPanel.setVisible(true);
     }
 
     public void clearChat() {
         SwingUtilities.invokeLater(() -> {
+            countdownTimer.stop();
+            clockSynced = false;
             quizDisplay.setText("");
             answerDisplay.setText("");
             timerLabel.setText("남은 시간: --");
@@ -65,7 +65,7 @@ public class LobbyGUI extends JPanel {
 
         JTextField roomNameField = new JTextField();
         JComboBox<String> categoryBox = new JComboBox<>(new String[]{"통합", "경제", "사회", "넌센스"});
-        JSpinner playerCountSpinner = new JSpinner(new SpinnerNumberModel(2, 2, 6, 1));
+        JSpinner playerCountSpinner = new JSpinner(new SpinnerNumberModel(2, 2, 1000, 1));
         JSpinner questionCountSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 20, 1));
         JSpinner timePerQuestionSpinner = new JSpinner(new SpinnerNumberModel(30, 10, 60, 5));
 
@@ -152,15 +152,25 @@ public class LobbyGUI extends JPanel {
         infoLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 12));
 
         JButton joinButton = new JButton("참가");
-        joinButton.setEnabled(!room.isFull());
-        if (room.isFull()) {
+        joinButton.setEnabled(!room.isFull() && !room.isGameStarted());
+        if (room.isGameStarted()) {
+            joinButton.setText("진행 중");
+        } else if (room.isFull()) {
             joinButton.setText("만석");
         }
 
         joinButton.addActionListener(e -> client.joinRoom(room.getRoomId()));
 
+        // 관전은 인원이나 진행 여부와 상관없이 가능
+        JButton spectateButton = new JButton("관전");
+        spectateButton.addActionListener(e -> client.spectateRoom(room.getRoomId()));
+
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        buttonPanel.add(joinButton);
+        buttonPanel.add(spectateButton);
+
         panel.add(infoLabel, BorderLayout.CENTER);
-        panel.add(joinButton, BorderLayout.EAST);
+        panel.add(buttonPanel, BorderLayout.EAST);
 
         return panel;
     }
@@ -0,0 +1,91 @@
+package client;
+
+import java.util.Arrays;
+
+// 서버가 보내는 메시지 종류
+// 방 메시지 접두어("[방 n] ")를 잘라내지 않고, 그 뒤 첫 글자로 후보를 표에서 찾아 토큰을 비교한다 (문자열·배열을 만들지 않음).
+// 토큰에 해당하지 않으면 TEXT(채팅이나 안내 문장)이다.
+public enum MessageType {
+    // 로비 단위 메시지: 접두어 없이 온다
+    ROOM_LIST("ROOM_LIST:", false),
+    JOIN_ROOM("JOIN_ROOM:", false),
+    SPECTATE_JOIN("SPECTATE_JOIN:", false),
+    SPECTATE("SPECTATE:", false),
+    USE_GPT("USE_GPT", false),
+    LOBBY("LOBBY:", false),
+    // 방 메시지: 보통 "[방 n] " 뒤에 온다
+    RPS_START("RPS_START:", true),
+    GAME_END("GAME_END:", true),
+    SELECT_MODE("SELECT_MODE", true),
+    QUIZ("QUIZ:", true),
+    TIME("TIME:", true),
+    SCORE("SCORE:", true),
+    TEXT(null, true);
+
+    private static final String ROOM_PREFIX = "[방 ";
+    // 첫 글자 → 그 글자로 시작하는 종류들 (많아야 서너 개)
+    private static final MessageType[][] BY_FIRST_CHAR = new MessageType[128][];
+
+    static {
+        for (MessageType type : values()) {
+            if (type.token != null) {
+                char first = type.token.charAt(0);
+                MessageType[] list = BY_FIRST_CHAR[first];
+                list = list == null ? new MessageType[1] : Arrays.copyOf(list, list.length + 1);
+                list[list.length - 1] = type;
+                BY_FIRST_CHAR[first] = list;
+            }
+        }
+    }
+
+    private final String token;
+    private final boolean inRoom;
+
+    MessageType(String token, boolean inRoom) {
+        this.token = token;
+        this.inRoom = inRoom;
+    }
+
+    // "[방 n] " 다음 위치 (접두어가 없으면 0)
+    public static int contentStart(String message) {
+        if (message.startsWith(ROOM_PREFIX)) {
+            int prefixEnd = message.indexOf("] ", ROOM_PREFIX.length());
+            if (prefixEnd != -1) {
+                return prefixEnd + 2;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param start contentStart(message)의 값
+     */
+    public static MessageType of(String message, int start) {
+        if (start >= message.length() || message.charAt(start) >= BY_FIRST_CHAR.length) {
+            return TEXT;
+        }
+        MessageType[] candidates = BY_FIRST_CHAR[message.charAt(start)];
+        if (candidates != null) {
+            for (MessageType type : candidates) {
+                if (type.matches(message, start)) {
+                    // 로비 메시지가 방 접두어 뒤에 있으면 채팅 문장일 뿐이다
+                    return type.inRoom || start == 0 ? type : TEXT;
+                }
+            }
+        }
+        return TEXT;
+    }
+
+    // ':'로 끝나는 토큰은 접두어로, 나머지는 메시지 전체로 비교한다
+    private boolean matches(String message, int start) {
+        if (!message.startsWith(token, start)) {
+            return false;
+        }
+        return token.charAt(token.length() - 1) == ':' || message.length() == start + token.length();
+    }
+
+    // 인자가 시작하는 위치
+    public int argStart(int start) {
+        return token == null ? start : start + token.length();
+    }
+}
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class QuizClient extends JFrame {
@@ -18,12 +19,22 @@ public class QuizClient extends JFrame {
     private CardLayout cardLayout;
     private JPanel mainPanel;
 
-    private Socket socket;
-    private ObjectOutputStream out;
+    private volatile Socket socket;
+    private volatile ObjectOutputStream out;
     private ObjectInputStream in;
     private String playerName;
     private Thread receiveThread;
     private int currentRoomId = -1;
+    private boolean spectating;         // 현재 방을 관전 중인지 (플레이어로 참가한 경우 false)
+
+    // 재접속: 서버가 준 토큰과 지금까지 받은 메시지 수로 끊긴 지점부터 이어받는다
+    private static final long RECONNECT_WINDOW_MILLIS = 25000;  // 서버의 대기 시간(30초)보다 짧게
+    private String host;
+    private int port;
+    private String resumeToken;
+    private long receivedCount;
+    private boolean counting = true;    // 재접속 직후 RESUMED를 받기 전까지는 세지 않는다
+    private volatile boolean closing;
 
     public QuizClient(String playerName) {
         this.playerName = playerName;
@@ -53,10 +64,10 @@ public class QuizClient extends JFrame {
     }
 
     public void connect(String host, int port) {
+        this.host = host;
+        this.port = port;
         try {
-            socket = new Socket(host, port);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            openSocket();
             out.writeObject("ID:" + playerName);
 
             receiveThread = new Thread(this::receiveMessages);
@@ -66,7 +77,22 @@ public class QuizClient extends JFrame {
         }
     }
 
+    private void openSocket() throws IOException {
+        socket = new Socket(host, port);
+        out = new ObjectOutputStream(socket.getOutputStream());
+        in = new ObjectInputStream(socket.getInputStream());
+    }
+
     public void disconnect() {
+        closing = true;
+        try {
+            if (out != null && socket != null && !socket.isClosed()) {
+                out.writeObject("QUIT");    // 직접 종료하면 서버가 재접속을 기다리지 않는다
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 이미 끊겼으면 그냥 닫는다
+        }
         try {
             if (receiveThread != null) {
                 receiveThread.interrupt();
@@ -87,58 +113,173 @@ public class QuizClient extends JFrame {
     }
 
     private void receiveMessages() {
-        try {
-            while (!Thread.interrupted() && socket != null && !socket.isClosed()) {
-                Object received = in.readObject();
-                if (received instanceof String) {
-                    String message = (String)received;
-                    handleMessage(message);
+        while (true) {
+            try {
+                while (!Thread.interrupted() && socket != null && !socket.isClosed()) {
+                    Object received = in.readObject();
+                    if (received instanceof String) {
+                        String message = (String)received;
+                        if (handleSessionMessage(message)) {
+                            continue;
+                        }
+                        if (message.startsWith("BATCH:")) {
+                            // 서버가 게임 이벤트 하나에서 나온 메시지를 묶어 보낸 봉투 (순번은 봉투 하나로 센다)
+                            List<String> parts;
+                            try {
+                                parts = unpackBatch(message);
+                            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                                showMessage("메시지 수신 중 오류 발생: 잘못된 BATCH 메시지 (" + e.getMessage() + ")");
+                                continue;
+                            }
+                            for (String part : parts) {
+                                handleMessage(part);
+                            }
+                        } else {
+                            handleMessage(message);
+                        }
+                    }
+                }
+                return;
+            } catch (IOException e) {
+                if (closing) {
+                    return;
                 }
+                if (!reconnect()) {
+                    showMessage("서버와의 연결이 끊어졌습니다: " + e.getMessage());
+                    return;
+                }
+            } catch (ClassNotFoundException e) {
+                showMessage("메시지 수신 중 오류 발생: " + e.getMessage());
+                return;
             }
-        } catch (IOException e) {
-            if (!socket.isClosed()) {
-                showMessage("서버와의 연결이 끊어졌습니다: " + e.getMessage());
+        }
+    }
+
+    // 재접속 관련 메시지는 여기서 처리하고 true를 돌려준다. 그 외 메시지는 받은 개수에 더한다.
+    private boolean handleSessionMessage(String message) {
+        if (message.startsWith("RESUMED:")) {
+            counting = true;    // 이후로 오는 메시지는 서버 버퍼의 순번과 맞는다
+            SwingUtilities.invokeLater(() -> setTitle("퀴즈 게임 - " + playerName));
+            return true;
+        }
+        if (message.startsWith("RESUME_FAILED:")) {
+            // 세션이 이미 정리됐으면 새로 접속한 것으로 시작한다
+            receivedCount = Long.parseLong(message.substring(14));
+            counting = true;
+            resumeToken = null;
+            sendMessage("ID:" + playerName);
+            SwingUtilities.invokeLater(() -> {
+                setTitle("퀴즈 게임 - " + playerName);
+                currentRoomId = -1;
+                spectating = false;
+                gameGUI.closeRPSPanel();
+                cardLayout.show(mainPanel, "LOBBY");
+                showMessage("재접속 대기 시간이 지나 로비로 돌아갑니다.");
+            });
+            return true;
+        }
+        if (counting) {
+            receivedCount++;
+        }
+        if (message.startsWith("SESSION:")) {
+            resumeToken = message.substring(message.indexOf(':', 8) + 1);
+            return true;
+        }
+        return false;
+    }
+
+    // 서버가 묶어 보낸 봉투를 메시지 목록으로 푼다. BATCH:<개수>\n<길이>:<메시지><길이>:<메시지>...
+    static List<String> unpackBatch(String batch) {
+        int newline = batch.indexOf('\n');
+        int count = Integer.parseInt(batch.substring(6, newline));
+        List<String> messages = new ArrayList<>(count);
+        int pos = newline + 1;
+        for (int i = 0; i < count; i++) {
+            int colon = batch.indexOf(':', pos);
+            int length = Integer.parseInt(batch.substring(pos, colon));
+            messages.add(batch.substring(colon + 1, colon + 1 + length));
+            pos = colon + 1 + length;
+        }
+        return messages;
+    }
+
+    // 잠깐 끊긴 경우 같은 세션으로 다시 붙는다. 서버가 빠진 메시지를 이어서 보내준다.
+    private boolean reconnect() {
+        if (resumeToken == null) {
+            return false;
+        }
+        SwingUtilities.invokeLater(() -> setTitle("퀴즈 게임 - " + playerName + " (재접속 중...)"));
+        long deadline = System.currentTimeMillis() + RECONNECT_WINDOW_MILLIS;
+        while (!closing && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1000);
+                openSocket();
+                counting = false;
+                out.writeObject("RESUME:" + resumeToken + ":" + receivedCount);
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                // 서버가 아직 안 보이면 다시 시도
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
-        } catch (ClassNotFoundException e) {
-            showMessage("메시지 수신 중 오류 발생: " + e.getMessage());
         }
+        return false;
     }
 
     private void handleMessage(String message) {
         SwingUtilities.invokeLater(() -> {
-            if (message.startsWith("ROOM_LIST:")) {
-                handleRoomList(message);
-            } else if (message.startsWith("JOIN_ROOM:")) {
-                currentRoomId = Integer.parseInt(message.substring(10));
-                cardLayout.show(mainPanel, "GAME");
-                gameGUI.clearChat();
-            } else if (message.startsWith("RPS_START:")) {
-                String[] players = message.substring(10).split(",");
-                List<String> playerList = new ArrayList<>(Arrays.asList(players));
-                gameGUI.startRPSGame(playerList);
-            } else if (message.startsWith("GAME_END:")) {
-                handleGameEnd(message);
-            } else if (message.equals("USE_GPT")) {
-                handleGPTChoice();
-            } else if (message.equals("LOBBY:")) {
-                currentRoomId = -1;
-                cardLayout.show(mainPanel, "LOBBY");
-            } else {
-                if (currentRoomId != -1) {
-                    gameGUI.displayMessage(message);
-                } else {
-                    lobbyGUI.displayMessage(message);
-                }
+            int start = MessageType.contentStart(message);
+            MessageType type = MessageType.of(message, start);
+            switch (type) {
+                case ROOM_LIST:
+                    handleRoomList(message);
+                    break;
+                case JOIN_ROOM:
+                case SPECTATE_JOIN:
+                    currentRoomId = Integer.parseInt(message, type.argStart(start), message.length(), 10);
+                    spectating = type == MessageType.SPECTATE_JOIN;
+                    cardLayout.show(mainPanel, "GAME");
+                    gameGUI.clearChat();
+                    gameGUI.setSpectating(spectating);
+                    break;
+                case SPECTATE:
+                    gameGUI.applySpectatorUpdate(message);
+                    break;
+                case RPS_START:
+                    String[] players = message.substring(type.argStart(start)).split(",");
+                    List<String> playerList = new ArrayList<>(Arrays.asList(players));
+                    gameGUI.startRPSGame(playerList);
+                    break;
+                case GAME_END:
+                    gameGUI.closeRPSPanel();
+                    handleGameEnd(message.substring(start));
+                    break;
+                case USE_GPT:
+                    handleGPTChoice();
+                    break;
+                case LOBBY:
+                    currentRoomId = -1;
+                    spectating = false;
+                    cardLayout.show(mainPanel, "LOBBY");
+                    break;
+                default:
+                    if (currentRoomId != -1) {
+                        gameGUI.displayMessage(message, type, start);
+                    } else {
+                        lobbyGUI.displayMessage(message);
+                    }
+                    break;
             }
         });
     }
 
     private void handleGameEnd(String message) {
-        String[] parts = message.substring(9).split(";");
-        Map<String, Integer> scores = new HashMap<>();
+        Map<String, Integer> scores = new LinkedHashMap<>();    // 서버가 순위 순서로 보내므로 순서 유지
         boolean rpsDecided = message.contains("RPS_DECIDED:");
 
-        String scoresStr = rpsDecided ? message.substring(message.indexOf(":") + 1) : message.substring(9);
+        String scoresStr = rpsDecided ? message.substring(message.indexOf("RPS_DECIDED:") + 12) : message.substring(9);
         String[] scoreEntries = scoresStr.split(";");
 
         for (String entry : scoreEntries) {
@@ -170,6 +311,7 @@ public class QuizClient extends JFrame {
                 int timePerQuestion = Integer.parseInt(parts[7]);
 
                 Room room = new Room(roomId, roomName, hostName, maxPlayers, category, questionCount, timePerQuestion);
+                room.setGameStarted(parts.length > 8 && parts[8].equals("1"));
                 rooms.add(room);
             }
 
@@ -214,10 +356,19 @@ public class QuizClient extends JFrame {
         }
     }
 
+    public void spectateRoom(int roomId) {
+        if (socket != null && !socket.isClosed() && out != null) {
+            sendMessage("SPECTATE:" + roomId);
+        } else {
+            showMessage("서버와 연결되어 있지 않습니다.");
+        }
+    }
+
     public void leaveRoom() {
         if (currentRoomId != -1) {
-            sendMessage("LEAVE_ROOM:" + currentRoomId);
+            sendMessage(spectating ? "LEAVE_SPECTATE" : "LEAVE_ROOM:" + currentRoomId);
             currentRoomId = -1;
+            spectating = false;
             cardLayout.show(mainPanel, "LOBBY");
             gameGUI.clearChat();
         }
@@ -1,6 +1,5 @@
 package client.panels;
 
-import client.QuizClient;
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
@@ -9,10 +8,8 @@ import java.util.*;
 public class GameResultPanel extends JDialog {
     private final Map<String, Integer> playerScores;
     private final String currentPlayer;
-    private final QuizClient client;
     private final JPanel mainPanel;
     private final JPanel scorePanel;
-    private RPSPanel rpsPanel;
     private final boolean rpsDecided;
 
     private static final Color BACKGROUND_COLOR = new Color(240, 248, 255);
@@ -22,17 +19,15 @@ public class GameResultPanel extends JDialog {
     private static final Color BRONZE_COLOR = new Color(205, 127, 50);
 
     public GameResultPanel(JFrame parent, Map<String, Integer> scores, String currentPlayer,
-                           QuizClient client, boolean rpsDecided) {
+                           boolean rpsDecided) {
         super(parent, "게임 종료!", true);
-        this.playerScores = new HashMap<>(scores);
+        this.playerScores = new LinkedHashMap<>(scores);
         this.currentPlayer = currentPlayer;
-        this.client = client;
         this.rpsDecided = rpsDecided;
         this.mainPanel = new JPanel(new BorderLayout(10, 10));
         this.scorePanel = new JPanel(new GridLayout(0, 1, 5, 5));
 
         initComponents();
-        checkForTie();
 
         setSize(400, 500);
         setLocationRelativeTo(parent);
@@ -54,13 +49,9 @@ public class GameResultPanel extends JDialog {
         scorePanel.setBackground(BACKGROUND_COLOR);
         scorePanel.setBorder(new EmptyBorder(20, 0, 20, 0));
 
-        // 결과 정렬 및 표시
-        java.util.List<Map.Entry<String, Integer>> sortedScores =
-                new ArrayList<>(playerScores.entrySet());
-        sortedScores.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
-
+        // 결과 표시 (서버가 이미 순위 순서로 보내므로 다시 정렬하지 않음)
         int rank = 1;
-        for (Map.Entry<String, Integer> entry : sortedScores) {
+        for (Map.Entry<String, Integer> entry : playerScores.entrySet()) {
             JPanel playerPanel = createPlayerScorePanel(entry.getKey(), entry.getValue(), rank);
             scorePanel.add(playerPanel);
             rank++;
@@ -143,28 +134,4 @@ public class GameResultPanel extends JDialog {
 
         return panel;
     }
-
-    private void checkForTie() {
-        if (rpsDecided) {
-            return;  // 이미 가위바위보로 결정된 경우 추가 체크 불필요
-        }
-
-        int maxScore = Collections.max(playerScores.values());
-        java.util.List<String> tiedPlayers = new ArrayList<>();
-
-        for (Map.Entry<String, Integer> entry : playerScores.entrySet()) {
-            if (entry.getValue() == maxScore) {
-                tiedPlayers.add(entry.getKey());
-            }
-        }
-
-        if (tiedPlayers.size() > 1 && tiedPlayers.contains(currentPlayer)) {
-            showRPSPanel(tiedPlayers);
-        }
-    }
-
-    private void showRPSPanel(java.util.List<String> tiedPlayers) {
-        rpsPanel = new RPSPanel(this, tiedPlayers, currentPlayer, client);
-        rpsPanel.setVisible(true);
-    }
-}
\ No newline at end of file
+}
@@ -10,11 +10,10 @@ import model.RPS;
 
 public class RPSPanel extends JDialog {
     private final java.util.List<String> players;
+    private final java.util.List<JButton> choiceButtons = new ArrayList<>();
     private final String currentPlayer;
     private final QuizClient client;
     private final JLabel statusLabel;
-    private final Map<String, RPS> playerChoices;
-    private final javax.swing.Timer rpsTimer;
 
     private static final Color BACKGROUND_COLOR = new Color(240, 248, 255);
 
@@ -23,9 +22,7 @@ public class RPSPanel extends JDialog {
         this.players = new ArrayList<>(players);
         this.currentPlayer = currentPlayer;
         this.client = client;
-        this.playerChoices = new HashMap<>();
         this.statusLabel = new JLabel("동점자 결정전: 가위바위보", SwingConstants.CENTER);
-        this.rpsTimer = new javax.swing.Timer(1000, e -> checkResults());
 
         initComponents();
         setSize(400, 300);
@@ -74,8 +71,10 @@ public class RPSPanel extends JDialog {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
         panel.setBackground(BACKGROUND_COLOR);
 
+        choiceButtons.clear();
         for (RPS choice : RPS.values()) {
             JButton button = createRPSButton(choice);
+            choiceButtons.add(button);
             panel.add(button);
         }
 
@@ -101,66 +100,24 @@ public class RPSPanel extends JDialog {
         button.addActionListener(e -> {
             client.sendMessage("RPS_CHOICE:" + choice.name());
             disableButtons();
-            statusLabel.setText("선택 완료: " + choice.getKorean());
-            rpsTimer.start();
+            statusLabel.setText("선택 완료: " + choice.getKorean() + " (결과를 기다리는 중...)");
         });
 
         return button;
     }
 
     private void disableButtons() {
-        for (Component comp : getContentPane().getComponents()) {
-            if (comp instanceof JButton) {
-                comp.setEnabled(false);
-            }
+        for (JButton button : choiceButtons) {
+            button.setEnabled(false);
         }
     }
 
-    private void checkResults() {
-        if (playerChoices.size() == players.size()) {
-            rpsTimer.stop();
-            determineWinner();
-        }
-    }
-
-    public void handleRPSChoice(String player, RPS choice) {
-        playerChoices.put(player, choice);
-        if (playerChoices.size() == players.size()) {
-            determineWinner();
-        }
-    }
-
-    private void determineWinner() {
-        java.util.List<String> winners = new ArrayList<>();
-        for (String player1 : players) {
-            boolean isWinner = true;
-            RPS choice1 = playerChoices.get(player1);
-
-            for (String player2 : players) {
-                if (!player1.equals(player2)) {
-                    RPS choice2 = playerChoices.get(player2);
-                    if (choice2.beats(choice1)) {
-                        isWinner = false;
-                        break;
-                    }
-                }
-            }
-
-            if (isWinner) {
-                winners.add(player1);
-            }
-        }
-
-        if (winners.size() == 1) {
-            client.sendMessage("RPS_WINNER:" + winners.get(0));
-            dispose();
-        } else {
-            players.clear();
-            players.addAll(winners);
-            playerChoices.clear();
-            statusLabel.setText("동점! 다시 한 번!");
-            refreshComponents();
-        }
+    // 승부는 서버가 판정한다. 비겨서 다시 RPS_START가 오면 남은 플레이어로 새 판을 시작한다.
+    public void startNextRound(java.util.List<String> remainingPlayers) {
+        players.clear();
+        players.addAll(remainingPlayers);
+        refreshComponents();
+        statusLabel.setText("동점! 다시 한 번!");
     }
 
     private void refreshComponents() {
@@ -0,0 +1,231 @@
+package model;
+
+// QuizCacheDAO.java
+// GPT로 생성한 퀴즈를 로컬 파일에 쌓아두고 다시 꺼내 쓰는 캐시
+// 파일은 한 줄에 퀴즈 하나씩 덧붙이기만 하고, 메모리 인덱스로 조회/만료/LRU 제거를 처리한다.
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class QuizCacheDAO {
+    private final File file;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // 전체 항목 (접근 순서 유지 → 가장 오래 안 쓴 항목이 맨 앞)
+    private final LinkedHashMap<String, Entry> entries;
+    // 모델 + 카테고리별 항목 목록
+    private final Map<String, LinkedHashSet<Entry>> index;
+    private final Random random;
+
+    private static class Entry {
+        final String cacheKey;
+        final String entryKey;
+        final String model;
+        final String category;
+        final String question;
+        final String answer;
+        final long createdAt;
+
+        Entry(String model, String category, String question, String answer, long createdAt) {
+            this.model = model;
+            this.category = category;
+            this.question = question;
+            this.answer = answer;
+            this.createdAt = createdAt;
+            this.cacheKey = cacheKey(model, category);
+            this.entryKey = cacheKey + "\n" + question;
+        }
+    }
+
+    /**
+     * @param path 캐시 파일 경로
+     * @param maxEntries 메모리에 유지할 최대 퀴즈 수 (넘으면 가장 오래 안 쓴 것부터 제거)
+     * @param ttlMillis 퀴즈 유효 기간, 0 이하이면 만료 없음
+     */
+    public QuizCacheDAO(String path, int maxEntries, long ttlMillis) {
+        this.file = new File(path);
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.index = new HashMap<>();
+        this.random = new Random();
+        load();
+    }
+
+    private static String cacheKey(String model, String category) {
+        return model + "\n" + category;
+    }
+
+    /**
+     * 캐시에서 해당 카테고리/모델의 퀴즈를 최대 count개 무작위로 꺼낸다. 꺼낸 퀴즈는 캐시에 그대로 남는다.
+     * @return 새로 만든 Quiz 목록 (캐시가 부족하면 count보다 적을 수 있음)
+     */
+    public synchronized List<Quiz> take(String category, String model, int count) {
+        LinkedHashSet<Entry> bucket = index.get(cacheKey(model, category));
+        List<Quiz> result = new ArrayList<>();
+        if (bucket == null || count <= 0) {
+            return result;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Entry> alive = new ArrayList<>(bucket.size());
+        for (Entry entry : new ArrayList<>(bucket)) {
+            if (isExpired(entry, now)) {
+                remove(entry);
+            } else {
+                alive.add(entry);
+            }
+        }
+
+        Collections.shuffle(alive, random);
+        for (int i = 0; i < alive.size() && result.size() < count; i++) {
+            Entry entry = alive.get(i);
+            entries.get(entry.entryKey);    // LRU 순서 갱신
+            result.add(new Quiz(entry.question, entry.answer, Quiz.QuizType.SHORT_ANSWER, "AI 생성 퀴즈"));
+        }
+        return result;
+    }
+
+    /**
+     * 새로 생성된 퀴즈를 캐시와 파일에 추가한다. 같은 문제가 이미 있으면 무시한다.
+     */
+    public synchronized void put(String category, String model, Quiz quiz) {
+        Entry entry = new Entry(model, category, quiz.getQuestion(), quiz.getAnswer(),
+                System.currentTimeMillis());
+        if (entries.containsKey(entry.entryKey)) {
+            return;
+        }
+        add(entry);
+        append(entry);
+        evict();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMillis > 0 && now - entry.createdAt > ttlMillis;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.entryKey, entry);
+        index.computeIfAbsent(entry.cacheKey, k -> new LinkedHashSet<>()).add(entry);
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.entryKey);
+        LinkedHashSet<Entry> bucket = index.get(entry.cacheKey);
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                index.remove(entry.cacheKey);
+            }
+        }
+    }
+
+    private void evict() {
+        while (entries.size() > maxEntries) {
+            remove(entries.values().iterator().next());
+        }
+    }
+
+    // 파일을 다시 읽어 인덱스를 만든다. 만료되었거나 제거된 줄이 있으면 파일을 정리해서 다시 쓴다.
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int lines = 0;
+        try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                lines++;
+                Entry entry = decode(line);
+                if (entry != null && !isExpired(entry, now) && !entries.containsKey(entry.entryKey)) {
+                    add(entry);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("예외 : 퀴즈 캐시 로드 실패 - " + e);
+            return;
+        }
+        evict();
+        if (lines > entries.size()) {
+            compact();
+        }
+        System.out.println("퀴즈 캐시에서 " + entries.size() + "개의 문제를 로드했습니다.");
+    }
+
+    private void append(Entry entry) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+            writer.write(encode(entry));
+            writer.write('\n');
+        } catch (IOException e) {
+            System.out.println("예외 : 퀴즈 캐시 저장 실패 - " + e);
+        }
+    }
+
+    private void compact() {
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(encode(entry));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.out.println("예외 : 퀴즈 캐시 정리 실패 - " + e);
+            temp.delete();
+            return;
+        }
+        if (!file.delete() || !temp.renameTo(file)) {
+            System.out.println("예외 : 퀴즈 캐시 파일 교체 실패 - " + file.getAbsolutePath());
+        }
+    }
+
+    // 생성시각 \t 모델 \t 카테고리 \t 문제 \t 정답
+    private static String encode(Entry entry) {
+        return entry.createdAt + "\t" + escape(entry.model) + "\t" + escape(entry.category) + "\t"
+                + escape(entry.question) + "\t" + escape(entry.answer);
+    }
+
+    private static Entry decode(String line) {
+        String[] parts = line.split("\t", -1);
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            return new Entry(unescape(parts[1]), unescape(parts[2]), unescape(parts[3]),
+                    unescape(parts[4]), Long.parseLong(parts[0]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
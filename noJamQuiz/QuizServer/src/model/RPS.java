@@ -0,0 +1,46 @@
+package model;
+
+public enum RPS {
+    ROCK("바위"),
+    PAPER("보"),
+    SCISSORS("가위");
+
+    private static final RPS[] VALUES = values();
+
+    private final String korean;
+
+    RPS(String korean) {
+        this.korean = korean;
+    }
+
+    public String getKorean() {
+        return korean;
+    }
+
+    public static RPS getRPS(String korean) {
+        for (RPS rps : RPS.values()) {
+            if (rps.korean.equals(korean)) {
+                return rps;
+            }
+        }
+        return null;
+    }
+
+    // 메시지의 start 위치부터 끝까지가 상수 이름(ROCK 등)이면 그 값, 아니면 null
+    public static RPS fromWire(String message, int start) {
+        int length = message.length() - start;
+        for (RPS rps : VALUES) {
+            if (rps.name().length() == length && message.startsWith(rps.name(), start)) {
+                return rps;
+            }
+        }
+        return null;
+    }
+
+    // 가위바위보 승패 판정
+    public boolean beats(RPS other) {
+        return (this == ROCK && other == SCISSORS) ||
+                (this == SCISSORS && other == PAPER) ||
+                (this == PAPER && other == ROCK);
+    }
+}
\ No newline at end of file
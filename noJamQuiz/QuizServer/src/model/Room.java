@@ -1,13 +1,20 @@
 package model;
 
+import java.util.Arrays;
 import java.util.Vector;
 
 public class Room {
+    public static final int MAX_PLAYERS_LIMIT = 1000;  // 대형 방 모드까지 고려한 방 최대 인원
+
     private int roomId;
     private String roomName;
+    private int hostId;             // 방장 세션 id
     private String hostName;
     private int maxPlayers;
-    private Vector<String> players;
+    // 참가자는 서버가 발급한 세션 id로 관리하고, 이름은 화면 표시용으로만 함께 둔다
+    private final int[] playerIds;
+    private final String[] playerNames;
+    private int playerCount;
     private QuizCategory category;
     private boolean isGameStarted;
     private int questionCount;
@@ -39,45 +46,92 @@ public class Room {
         }
     }
 
-    public Room(int roomId, String roomName, String hostName, int maxPlayers, QuizCategory category,
+    public Room(int roomId, String roomName, int hostId, String hostName, int maxPlayers, QuizCategory category,
                 int questionCount, int timePerQuestion) {
+        if (maxPlayers < 1 || maxPlayers > MAX_PLAYERS_LIMIT) {
+            throw new IllegalArgumentException("Invalid max players: " + maxPlayers);
+        }
         this.roomId = roomId;
         this.roomName = roomName;
+        this.hostId = hostId;
         this.hostName = hostName;
         this.maxPlayers = maxPlayers;
         this.category = category;
         this.questionCount = questionCount;
         this.timePerQuestion = timePerQuestion;
-        this.players = new Vector<>();
-        this.players.add(hostName);
+        this.playerIds = new int[Math.max(1, maxPlayers)];
+        this.playerNames = new String[playerIds.length];
+        this.playerIds[0] = hostId;
+        this.playerNames[0] = hostName;
+        this.playerCount = 1;
         this.isGameStarted = false;
     }
 
     // Getters and Setters
     public int getRoomId() { return roomId; }
     public String getRoomName() { return roomName; }
+    public int getHostId() { return hostId; }
     public String getHostName() { return hostName; }
     public int getMaxPlayers() { return maxPlayers; }
-    public Vector<String> getPlayers() { return players; }
     public QuizCategory getCategory() { return category; }
     public boolean isGameStarted() { return isGameStarted; }
     public void setGameStarted(boolean gameStarted) { isGameStarted = gameStarted; }
     public int getQuestionCount() { return questionCount; }
     public int getTimePerQuestion() { return timePerQuestion; }
 
-    public boolean addPlayer(String playerName) {
-        if (players.size() < maxPlayers && !players.contains(playerName)) {
-            players.add(playerName);
+    public synchronized int getPlayerCount() { return playerCount; }
+
+    // 현재 참가자 세션 id 복사본
+    public synchronized int[] getPlayerIds() {
+        return Arrays.copyOf(playerIds, playerCount);
+    }
+
+    // 현재 참가자 이름 복사본 (표시용)
+    public synchronized Vector<String> getPlayers() {
+        return new Vector<>(Arrays.asList(playerNames).subList(0, playerCount));
+    }
+
+    public synchronized String getPlayerName(int playerId) {
+        int index = indexOf(playerId);
+        return index < 0 ? null : playerNames[index];
+    }
+
+    public synchronized boolean hasPlayer(int playerId) {
+        return indexOf(playerId) >= 0;
+    }
+
+    private int indexOf(int playerId) {
+        for (int i = 0; i < playerCount; i++) {
+            if (playerIds[i] == playerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized boolean addPlayer(int playerId, String playerName) {
+        if (playerCount < maxPlayers && indexOf(playerId) < 0) {
+            playerIds[playerCount] = playerId;
+            playerNames[playerCount] = playerName;
+            playerCount++;
             return true;
         }
         return false;
     }
 
-    public boolean removePlayer(String playerName) {
-        return players.remove(playerName);
+    public synchronized boolean removePlayer(int playerId) {
+        int index = indexOf(playerId);
+        if (index < 0) {
+            return false;
+        }
+        playerCount--;
+        System.arraycopy(playerIds, index + 1, playerIds, index, playerCount - index);
+        System.arraycopy(playerNames, index + 1, playerNames, index, playerCount - index);
+        playerNames[playerCount] = null;
+        return true;
     }
 
-    public boolean isFull() {
-        return players.size() >= maxPlayers;
+    public synchronized boolean isFull() {
+        return playerCount >= maxPlayers;
     }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package model;
+
+// RoomCheckpointDAO.java
+// 열려 있는 방과 진행 중인 게임 상태를 파일 하나에 저장하고, 서버를 다시 켤 때 읽어 온다.
+// 임시 파일에 모두 쓴 다음 원래 파일로 바꿔치기하므로, 저장 도중 서버가 죽어도 이전 체크포인트는 남는다.
+//
+// 파일 형식 (탭 구분, 값의 역슬래시/탭/줄바꿈은 이스케이프)
+//   CHECKPOINT <버전> <저장시각> <다음 방 번호> <다음 세션 번호>
+//   SESSION <세션 id> <재접속 토큰> <이름>
+//   ROOM <방 id> <이름> <방장 id> <방장 이름> <최대 인원> <카테고리> <문제 수> <문제당 시간> <진행 여부>
+//   PLAYER <세션 id> <이름>
+//   GAME <GPT 여부> <현재 문제 번호> <남은 시간(ms)>
+//   QUIZ <문제> <정답> <유형> <카테고리> <배점> <제한 시간>
+//   SLOT <세션 id> <이름> <점수> <활성 여부>
+//   END
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class RoomCheckpointDAO {
+    private static final int VERSION = 1;
+
+    private final File file;
+
+    public static class Checkpoint {
+        public long savedAt;
+        public int nextRoomSeq;
+        public int nextSessionSeq;
+        public final List<SessionState> sessions = new ArrayList<>();
+        public final List<RoomState> rooms = new ArrayList<>();
+    }
+
+    public static class SessionState {
+        public final int sessionId;
+        public final String token;
+        public final String playerName;
+
+        public SessionState(int sessionId, String token, String playerName) {
+            this.sessionId = sessionId;
+            this.token = token;
+            this.playerName = playerName;
+        }
+    }
+
+    public static class RoomState {
+        public int roomId;
+        public String roomName;
+        public int hostId;
+        public String hostName;
+        public int maxPlayers;
+        public String category;
+        public int questionCount;
+        public int timePerQuestion;
+        public boolean gameStarted;
+        public int[] playerIds = new int[0];
+        public String[] playerNames = new String[0];
+        public GameState game;      // 게임이 없으면 null
+    }
+
+    // 게임 상태 복사본. 방 액터 안에서 배열을 복사해 만들고, 이후에는 바뀌지 않는다.
+    public static class GameState {
+        public boolean useGPT;
+        public List<Quiz> quizzes = new ArrayList<>();
+        public int currentQuizIndex;
+        public long remainingMillis;
+        public int[] slotSessionIds = new int[0];
+        public String[] slotNames = new String[0];
+        public int[] scores = new int[0];
+        public boolean[] active = new boolean[0];
+        public long captureNanos;   // 복사에 걸린 시간 (측정용, 파일에는 저장하지 않음)
+    }
+
+    public RoomCheckpointDAO(String path) {
+        this.file = new File(path);
+    }
+
+    /**
+     * 체크포인트를 저장한다.
+     * @return 기록한 바이트 수
+     */
+    public long save(Checkpoint checkpoint) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+            writeLine(writer, "CHECKPOINT", VERSION, checkpoint.savedAt, checkpoint.nextRoomSeq, checkpoint.nextSessionSeq);
+            for (SessionState session : checkpoint.sessions) {
+                writeLine(writer, "SESSION", session.sessionId, session.token, session.playerName);
+            }
+            for (RoomState room : checkpoint.rooms) {
+                writeLine(writer, "ROOM", room.roomId, room.roomName, room.hostId, room.hostName, room.maxPlayers,
+                        room.category, room.questionCount, room.timePerQuestion, room.gameStarted);
+                for (int i = 0; i < room.playerIds.length; i++) {
+                    writeLine(writer, "PLAYER", room.playerIds[i], room.playerNames[i]);
+                }
+                GameState game = room.game;
+                if (game != null) {
+                    writeLine(writer, "GAME", game.useGPT, game.currentQuizIndex, game.remainingMillis);
+                    // 객관식 보기는 현재 게임에서 쓰지 않아 저장하지 않는다
+                    for (Quiz quiz : game.quizzes) {
+                        writeLine(writer, "QUIZ", quiz.getQuestion(), quiz.getAnswer(), quiz.getType().name(),
+                                quiz.getCategory(), quiz.getPoints(), quiz.getTimeLimit());
+                    }
+                    for (int slot = 0; slot < game.slotSessionIds.length; slot++) {
+                        writeLine(writer, "SLOT", game.slotSessionIds[slot], game.slotNames[slot],
+                                game.scores[slot], game.active[slot]);
+                    }
+                }
+            }
+            writer.write("END\n");
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file.length();
+    }
+
+    /**
+     * 저장된 체크포인트를 읽는다.
+     * @return 파일이 없거나 끝(END)까지 온전하지 않으면 null
+     */
+    public Checkpoint load() {
+        if (!file.exists()) {
+            return null;
+        }
+        Checkpoint checkpoint = new Checkpoint();
+        RoomState room = null;
+        List<Integer> playerIds = new ArrayList<>();
+        List<String> playerNames = new ArrayList<>();
+        List<String[]> slots = new ArrayList<>();
+        boolean complete = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                switch (parts[0]) {
+                    case "CHECKPOINT":
+                        if (Integer.parseInt(parts[1]) != VERSION) {
+                            return null;
+                        }
+                        checkpoint.savedAt = Long.parseLong(parts[2]);
+                        checkpoint.nextRoomSeq = Integer.parseInt(parts[3]);
+                        checkpoint.nextSessionSeq = Integer.parseInt(parts[4]);
+                        break;
+                    case "SESSION":
+                        checkpoint.sessions.add(new SessionState(Integer.parseInt(parts[1]),
+                                unescape(parts[2]), unescape(parts[3])));
+                        break;
+                    case "ROOM":
+                        finishRoom(room, playerIds, playerNames, slots);
+                        room = new RoomState();
+                        room.roomId = Integer.parseInt(parts[1]);
+                        room.roomName = unescape(parts[2]);
+                        room.hostId = Integer.parseInt(parts[3]);
+                        room.hostName = unescape(parts[4]);
+                        room.maxPlayers = Integer.parseInt(parts[5]);
+                        room.category = unescape(parts[6]);
+                        room.questionCount = Integer.parseInt(parts[7]);
+                        room.timePerQuestion = Integer.parseInt(parts[8]);
+                        room.gameStarted = Boolean.parseBoolean(parts[9]);
+                        checkpoint.rooms.add(room);
+                        break;
+                    case "PLAYER":
+                        playerIds.add(Integer.parseInt(parts[1]));
+                        playerNames.add(unescape(parts[2]));
+                        break;
+                    case "GAME":
+                        room.game = new GameState();
+                        room.game.useGPT = Boolean.parseBoolean(parts[1]);
+                        room.game.currentQuizIndex = Integer.parseInt(parts[2]);
+                        room.game.remainingMillis = Long.parseLong(parts[3]);
+                        break;
+                    case "QUIZ":
+                        Quiz quiz = new Quiz(unescape(parts[1]), unescape(parts[2]),
+                                Quiz.QuizType.valueOf(parts[3]), unescape(parts[4]));
+                        quiz.setPoints(Integer.parseInt(parts[5]));
+                        quiz.setTimeLimit(Integer.parseInt(parts[6]));
+                        room.game.quizzes.add(quiz);
+                        break;
+                    case "SLOT":
+                        slots.add(parts);
+                        break;
+                    case "END":
+                        finishRoom(room, playerIds, playerNames, slots);
+                        complete = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("체크포인트 읽기 실패: " + e.getMessage());
+            return null;
+        }
+        return complete ? checkpoint : null;
+    }
+
+    private static void finishRoom(RoomState room, List<Integer> playerIds, List<String> playerNames,
+                                   List<String[]> slots) {
+        if (room == null) {
+            return;
+        }
+        room.playerIds = playerIds.stream().mapToInt(Integer::intValue).toArray();
+        room.playerNames = playerNames.toArray(new String[0]);
+        if (room.game != null) {
+            int count = slots.size();
+            room.game.slotSessionIds = new int[count];
+            room.game.slotNames = new String[count];
+            room.game.scores = new int[count];
+            room.game.active = new boolean[count];
+            for (int slot = 0; slot < count; slot++) {
+                String[] parts = slots.get(slot);
+                room.game.slotSessionIds[slot] = Integer.parseInt(parts[1]);
+                room.game.slotNames[slot] = unescape(parts[2]);
+                room.game.scores[slot] = Integer.parseInt(parts[3]);
+                room.game.active[slot] = Boolean.parseBoolean(parts[4]);
+            }
+        }
+        playerIds.clear();
+        playerNames.clear();
+        slots.clear();
+    }
+
+    private static void writeLine(Writer writer, String type, Object... values) throws IOException {
+        writer.write(type);
+        for (Object value : values) {
+            writer.write('\t');
+            writer.write(value == null ? "" : value instanceof String ? escape((String) value) : String.valueOf(value));
+        }
+        writer.write('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package server;
+
+// 표본으로 고른 ANSWER 하나가 서버 안을 지나간 단계별 시각 (System.nanoTime)
+// 읽기 스레드 → 방 액터 → 세션 송신 스레드 순으로 넘겨지며, 넘겨 주는 곳이 모두 큐/락을 거치므로 따로 동기화하지 않는다.
+public final class AnswerTrace {
+    public enum Stage {
+        READ("read"),               // ClientHandler.run에서 소켓 읽기가 끝난 시각
+        DISPATCHED("dispatch"),     // QuizServer.handleMessage가 ANSWER 처리로 넘긴 시각
+        ROOM_FOUND("room_lookup"),  // 방과 GameManager를 찾은 시각
+        ACTOR_START("mailbox"),     // 방 액터가 이벤트를 꺼내 처리하기 시작한 시각
+        GRADED("grading"),          // 채점과 결과 메시지 작성이 끝난 시각
+        QUEUED("batch"),            // 결과(SCORE 등)가 답한 사람의 송신 버퍼에 들어간 시각
+        WRITTEN("socket_write");    // 송신 스레드가 그 프레임을 소켓에 쓰고 flush한 시각
+
+        private final String label;    // 앞 단계에서 이 단계까지의 구간 이름
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final long[] at = new long[Stage.values().length];
+    private final long sampledAtMillis;
+    private final int sessionId;
+    private int roomId = -1;
+    private boolean graded;             // false면 채점 없이 무시된 답변 (이미 답함, 게임 중 아님)
+
+    AnswerTrace(int sessionId) {
+        this.sampledAtMillis = System.currentTimeMillis();
+        this.sessionId = sessionId;
+        at[Stage.READ.ordinal()] = System.nanoTime();
+    }
+
+    public void mark(Stage stage) {
+        at[stage.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * @return 앞 단계부터 이 단계까지 걸린 시간, 둘 중 하나라도 기록되지 않았으면 -1
+     */
+    public long stageNanos(Stage stage) {
+        if (stage == Stage.READ) {
+            return -1;
+        }
+        long start = at[stage.ordinal() - 1];
+        long end = at[stage.ordinal()];
+        return start == 0 || end == 0 ? -1 : end - start;
+    }
+
+    // 기록된 마지막 단계까지
+    public long totalNanos() {
+        for (int i = at.length - 1; i > 0; i--) {
+            if (at[i] != 0) {
+                return at[i] - at[0];
+            }
+        }
+        return 0;
+    }
+
+    void setRoomId(int roomId) {
+        this.roomId = roomId;
+    }
+
+    void setGraded(boolean graded) {
+        this.graded = graded;
+    }
+
+    public boolean isGraded() {
+        return graded;
+    }
+
+    public long getSampledAtMillis() {
+        return sampledAtMillis;
+    }
+
+    public int getSessionId() {
+        return sessionId;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+}
@@ -0,0 +1,139 @@
+package server;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ANSWER 지연 추적: N개 중 하나를 골라 단계별 시각을 남기고, 끝난 추적은 최근 RING_SIZE개까지 링에 보관한다.
+// "정답을 냈는데 반영이 안 됐다"는 문의가 오면 어느 구간(읽기, 방 조회, 메일박스 대기, 채점, 송신)에서 시간이 걸렸는지 본다.
+// 꺼져 있으면(sampleEvery = 0) 답변마다 volatile 읽기 한 번이 전부다.
+// 단계별 구간 시간은 quiz_answer_stage_seconds 히스토그램에도 더한다 (표본만).
+public final class AnswerTracer {
+    static final int RING_SIZE = 256;
+
+    private static volatile int sampleEvery = Integer.getInteger("server.traceSampleEvery", 0);
+    private static final AtomicLong answersSeen = new AtomicLong();
+    private static final AtomicLong recorded = new AtomicLong();
+    private static final AtomicReferenceArray<AnswerTrace> ring = new AtomicReferenceArray<>(RING_SIZE);
+    private static final MetricsRegistry.Histogram[] STAGE_SECONDS = new MetricsRegistry.Histogram[AnswerTrace.Stage.values().length];
+    private static final MetricsRegistry.Histogram TOTAL_SECONDS;
+
+    static {
+        for (AnswerTrace.Stage stage : AnswerTrace.Stage.values()) {
+            if (stage != AnswerTrace.Stage.READ) {
+                STAGE_SECONDS[stage.ordinal()] = stageHistogram(stage.getLabel());
+            }
+        }
+        TOTAL_SECONDS = stageHistogram("total");
+    }
+
+    private AnswerTracer() {
+    }
+
+    private static MetricsRegistry.Histogram stageHistogram(String stage) {
+        return MetricsRegistry.DEFAULT.histogram("quiz_answer_stage_seconds",
+                "표본으로 추적한 답변의 구간별 처리 시간", "stage", stage);
+    }
+
+    /**
+     * @param every N개 답변마다 하나씩 추적 (0이면 끔)
+     */
+    public static void setSampleEvery(int every) {
+        sampleEvery = Math.max(0, every);
+    }
+
+    public static int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    // 읽기 스레드에서 ANSWER를 받자마자 부른다. 표본이 아니면 null
+    static AnswerTrace sample(int sessionId) {
+        int every = sampleEvery;
+        if (every <= 0 || answersSeen.incrementAndGet() % every != 0) {
+            return null;
+        }
+        return new AnswerTrace(sessionId);
+    }
+
+    // 결과를 보냈거나 더 진행할 수 없게 된 추적을 링에 넣는다
+    static void finish(AnswerTrace trace) {
+        for (AnswerTrace.Stage stage : AnswerTrace.Stage.values()) {
+            long nanos = trace.stageNanos(stage);
+            if (nanos >= 0) {
+                STAGE_SECONDS[stage.ordinal()].observeNanos(nanos);
+            }
+        }
+        TOTAL_SECONDS.observeNanos(trace.totalNanos());
+        long index = recorded.getAndIncrement();
+        ring.set((int) (index % RING_SIZE), trace);
+    }
+
+    // 링에 남은 추적의 구간별 분포와 최근 추적 목록
+    public static String dump() {
+        List<AnswerTrace> traces = new ArrayList<>(RING_SIZE);
+        long total = recorded.get();
+        for (long i = Math.max(0, total - RING_SIZE); i < total; i++) {
+            AnswerTrace trace = ring.get((int) (i % RING_SIZE));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(4096);
+        int every = sampleEvery;
+        sb.append("답변 추적: ").append(every == 0 ? "꺼짐" : "답변 " + every + "개마다 1개")
+                .append(", 누적 ").append(total).append("건, 아래는 최근 ").append(traces.size()).append("건\n\n");
+        sb.append(String.format("%-14s %6s %10s %10s %10s%n", "구간", "건수", "p50(ms)", "p99(ms)", "max(ms)"));
+        for (AnswerTrace.Stage stage : AnswerTrace.Stage.values()) {
+            if (stage != AnswerTrace.Stage.READ) {
+                appendPercentiles(sb, stage.getLabel(), traces, stage);
+            }
+        }
+        appendPercentiles(sb, "total", traces, null);
+
+        sb.append('\n');
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+        for (int i = traces.size() - 1; i >= 0; i--) {
+            AnswerTrace trace = traces.get(i);
+            sb.append(format.format(new Date(trace.getSampledAtMillis())))
+                    .append(" 세션 ").append(trace.getSessionId())
+                    .append(" 방 ").append(trace.getRoomId() < 0 ? "-" : String.valueOf(trace.getRoomId()))
+                    .append(trace.isGraded() ? " 채점" : " 무시")
+                    .append(" total=").append(millis(trace.totalNanos()));
+            for (AnswerTrace.Stage stage : AnswerTrace.Stage.values()) {
+                long nanos = trace.stageNanos(stage);
+                if (nanos >= 0) {
+                    sb.append(' ').append(stage.getLabel()).append('=').append(millis(nanos));
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void appendPercentiles(StringBuilder sb, String label, List<AnswerTrace> traces, AnswerTrace.Stage stage) {
+        long[] values = new long[traces.size()];
+        int n = 0;
+        for (AnswerTrace trace : traces) {
+            long nanos = stage == null ? trace.totalNanos() : trace.stageNanos(stage);
+            if (nanos >= 0) {
+                values[n++] = nanos;
+            }
+        }
+        if (n == 0) {
+            sb.append(String.format("%-14s %6d %10s %10s %10s%n", label, 0, "-", "-", "-"));
+            return;
+        }
+        Arrays.sort(values, 0, n);
+        sb.append(String.format("%-14s %6d %10s %10s %10s%n", label, n,
+                millis(values[(n - 1) / 2]), millis(values[(int) ((n - 1) * 0.99)]), millis(values[n - 1])));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,120 @@
+package server;
+
+import java.util.*;
+
+// 문제마다 누가 답했는지 기록하는 비트셋
+// 게임 시작 시 플레이어(세션 id)마다 슬롯 번호를 하나씩 주고, 답변 여부는 long 워드의 비트로 관리한다.
+// 답변 처리와 "모두 답했는지" 확인은 O(1)이고, 문제마다 초기화할 때도 새로 할당하지 않는다.
+public class AnswerTracker {
+    private final IntIntMap slots = new IntIntMap(-1);    // 세션 id → 슬롯
+    private final List<String> names = new ArrayList<>();   // 슬롯 → 이름 (표시용)
+    private int[] playerIds = new int[8];                   // 슬롯 → 세션 id
+    private long[] answered = new long[1];
+    private long[] active = new long[1];
+    private int answeredCount;      // 활성 플레이어 중 답한 수
+    private int activeCount;
+
+    public void clear() {
+        slots.clear();
+        names.clear();
+        Arrays.fill(answered, 0L);
+        Arrays.fill(active, 0L);
+        answeredCount = 0;
+        activeCount = 0;
+    }
+
+    // 플레이어에게 슬롯을 배정한다. 이미 있으면 기존 슬롯을 돌려준다.
+    public int assign(int playerId, String playerName) {
+        int existing = slots.get(playerId);
+        if (existing >= 0) {
+            return existing;
+        }
+        int slot = names.size();
+        names.add(playerName);
+        slots.put(playerId, slot);
+        if (slot == playerIds.length) {
+            playerIds = Arrays.copyOf(playerIds, slot * 2);
+        }
+        playerIds[slot] = playerId;
+        int words = (slot >>> 6) + 1;
+        if (words > answered.length) {
+            answered = Arrays.copyOf(answered, Math.max(words, answered.length * 2));
+            active = Arrays.copyOf(active, answered.length);
+        }
+        active[slot >>> 6] |= 1L << slot;
+        activeCount++;
+        return slot;
+    }
+
+    // 슬롯이 없으면 -1
+    public int slotOf(int playerId) {
+        return slots.get(playerId);
+    }
+
+    public int idOf(int slot) {
+        return playerIds[slot];
+    }
+
+    public String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    public int slotCount() {
+        return names.size();
+    }
+
+    public boolean isActive(int slot) {
+        return (active[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public boolean isAnswered(int slot) {
+        return (answered[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * 답변을 기록한다.
+     * @return 이번에 처음 답한 활성 플레이어면 true, 이미 답했거나 나간 플레이어면 false
+     */
+    public boolean markAnswered(int slot) {
+        if (slot < 0 || !isActive(slot) || isAnswered(slot)) {
+            return false;
+        }
+        answered[slot >>> 6] |= 1L << slot;
+        answeredCount++;
+        return true;
+    }
+
+    // 게임에서 나간 플레이어는 "모두 답했는지" 계산에서 빠진다
+    public void deactivate(int playerId) {
+        int slot = slotOf(playerId);
+        if (slot < 0 || !isActive(slot)) {
+            return;
+        }
+        if (isAnswered(slot)) {
+            answeredCount--;
+        }
+        active[slot >>> 6] &= ~(1L << slot);
+        activeCount--;
+    }
+
+    // 다음 문제를 위해 답변 기록만 지운다 (64명 이하면 워드 하나)
+    public void resetAnswers() {
+        int words = (names.size() + 63) >>> 6;
+        for (int i = 0; i < words; i++) {
+            answered[i] = 0L;
+        }
+        answeredCount = 0;
+    }
+
+    public int answeredCount() {
+        return answeredCount;
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    public boolean allAnswered() {
+        return answeredCount >= activeCount;
+    }
+}
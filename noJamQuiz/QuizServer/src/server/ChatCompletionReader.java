@@ -0,0 +1,237 @@
+package server;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// Chat Completions 응답에서 choices[].message.content 만 스트림으로 뽑아내는 작은 JSON 토크나이저
+// 응답 전체를 문자열로 모으지 않고, 필요 없는 값은 읽으면서 바로 버린다.
+public class ChatCompletionReader {
+    private static final String[] MESSAGE_PATH = {"choices", null, "message", "content"};
+    private static final String[] DELTA_PATH = {"choices", null, "delta", "content"};
+
+    private final Reader reader;
+    private final String[] target;     // null 항목은 배열 원소를 의미
+    private final StringBuilder content = new StringBuilder();
+    private final StringBuilder key = new StringBuilder();
+    private int peeked = -2;
+    private boolean found;             // 대상 경로의 문자열 값을 하나라도 찾았는지
+
+    private ChatCompletionReader(Reader reader, String[] target) {
+        this.reader = reader;
+        this.target = target;
+    }
+
+    /**
+     * 일반(비스트리밍) 응답 본문에서 content 를 추출한다.
+     * @return 이어 붙인 content, 응답에 content 가 없으면 null
+     */
+    public static String readContent(InputStream in) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ChatCompletionReader parser = new ChatCompletionReader(reader, MESSAGE_PATH);
+        if (!parser.parse()) {
+            return null;
+        }
+        return parser.content.toString();
+    }
+
+    /**
+     * stream: true 로 요청한 SSE 응답을 읽는다. delta 조각이 도착할 때마다 onDelta 를 호출한다.
+     * @return 모든 delta 를 이어 붙인 content, 조각이 하나도 없으면 null
+     */
+    public static String readStream(InputStream in, Consumer<String> onDelta) throws IOException {
+        return readStream(in, onDelta, null);
+    }
+
+    /**
+     * @param done 조각을 넘길 때마다 확인해서 true 면 [DONE]을 기다리지 않고 그만 읽는다 (null 이면 끝까지)
+     */
+    public static String readStream(InputStream in, Consumer<String> onDelta, BooleanSupplier done) throws IOException {
+        BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        StringBuilder result = new StringBuilder();
+        boolean found = false;
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (!line.startsWith("data:")) {
+                continue;   // 빈 줄, 주석(:), event: 등은 무시
+            }
+            String payload = line.substring(5).trim();
+            if (payload.equals("[DONE]")) {
+                break;
+            }
+            if (payload.isEmpty()) {
+                continue;
+            }
+            ChatCompletionReader parser = new ChatCompletionReader(new StringReader(payload), DELTA_PATH);
+            if (parser.parse() && parser.content.length() > 0) {
+                String delta = parser.content.toString();
+                result.append(delta);
+                found = true;
+                if (onDelta != null) {
+                    onDelta.accept(delta);
+                }
+                if (done != null && done.getAsBoolean()) {
+                    break;
+                }
+            }
+        }
+        return found ? result.toString() : null;
+    }
+
+    private boolean parse() throws IOException {
+        value(0, true);
+        return found;
+    }
+
+    private void value(int depth, boolean onPath) throws IOException {
+        int c = nextNonSpace();
+        switch (c) {
+            case '{':
+                object(depth, onPath);
+                break;
+            case '[':
+                array(depth, onPath);
+                break;
+            case '"':
+                if (onPath && depth == target.length) {
+                    found = true;
+                    string(content);
+                } else {
+                    string(null);
+                }
+                break;
+            case -1:
+                throw new EOFException("JSON 값이 필요합니다.");
+            default:
+                literal();
+                break;
+        }
+    }
+
+    private void object(int depth, boolean onPath) throws IOException {
+        int c = nextNonSpace();
+        if (c == '}') {
+            return;
+        }
+        while (true) {
+            if (c != '"') {
+                throw new IOException("JSON 키가 필요합니다: " + (char) c);
+            }
+            boolean wantKey = onPath && depth < target.length && target[depth] != null;
+            key.setLength(0);
+            string(wantKey ? key : null);
+            expect(':');
+            boolean childOnPath = wantKey && target[depth].contentEquals(key);
+            value(depth + 1, childOnPath);
+
+            c = nextNonSpace();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw new IOException("',' 또는 '}' 가 필요합니다.");
+            }
+            c = nextNonSpace();
+        }
+    }
+
+    private void array(int depth, boolean onPath) throws IOException {
+        int c = nextNonSpace();
+        if (c == ']') {
+            return;
+        }
+        peeked = c;
+        boolean childOnPath = onPath && depth < target.length && target[depth] == null;
+        while (true) {
+            value(depth + 1, childOnPath);
+            c = nextNonSpace();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw new IOException("',' 또는 ']' 가 필요합니다.");
+            }
+        }
+    }
+
+    // 여는 따옴표 다음부터 읽는다. sink 가 null 이면 내용을 버린다.
+    private void string(StringBuilder sink) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new EOFException("문자열이 닫히지 않았습니다.");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n': c = '\n'; break;
+                    case 't': c = '\t'; break;
+                    case 'r': c = '\r'; break;
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'u': c = unicode(); break;
+                    case '"': case '\\': case '/': break;
+                    default:
+                        throw new IOException("잘못된 이스케이프 문자입니다: " + (char) c);
+                }
+            }
+            if (sink != null) {
+                sink.append((char) c);
+            }
+        }
+    }
+
+    private int unicode() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new IOException("잘못된 유니코드 이스케이프입니다.");
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+
+    // 숫자, true/false/null 은 값이 필요 없으므로 건너뛴다.
+    private void literal() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return;
+            }
+            if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                peeked = c;
+                return;
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = nextNonSpace();
+        if (c != expected) {
+            throw new IOException("'" + expected + "' 가 필요합니다.");
+        }
+    }
+
+    private int nextNonSpace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
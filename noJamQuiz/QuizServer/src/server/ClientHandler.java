@@ -2,19 +2,36 @@ package server;
 
 import java.io.*;
 import java.net.*;
+import java.util.List;
 
 public class ClientHandler implements Runnable {
     private Socket clientSocket;
     private ObjectOutputStream out;
     private ObjectInputStream in;
+    private SessionOutbox outbox;   // 재접속하면 이전 연결의 outbox를 이어받는다
     private String playerName;
+    private int sessionId = -1;     // ID: 핸드셰이크 후 서버가 발급
+    private String resumeToken;     // 재접속할 때 세션을 되찾는 토큰
+    private volatile boolean closing;   // QUIT 등으로 직접 끊는 중이면 재접속 대기 없이 정리
+    private final InboundLimiter limiter = new InboundLimiter();
+    private AnswerTrace inboundTrace;   // 지금 처리 중인 ANSWER가 추적 표본이면 (읽기 스레드에서만 사용)
     private QuizServer server;
 
     public ClientHandler(Socket socket, QuizServer server) throws IOException {
         this.clientSocket = socket;
         this.server = server;
-        this.out = new ObjectOutputStream(socket.getOutputStream());
-        this.in = new ObjectInputStream(socket.getInputStream());
+        this.out = new ObjectOutputStream(ServerMetrics.countingOutput(socket.getOutputStream()));
+        this.in = new ObjectInputStream(ServerMetrics.countingInput(socket.getInputStream()));
+        // 클라이언트는 문자열만 보낸다. 다른 객체는 역직렬화 전에 거절한다.
+        this.in.setObjectInputFilter(ObjectInputFilter.Config.createFilter("!*"));
+        this.outbox = new SessionOutbox(out, this);
+    }
+
+    // 소켓 없이 세션만 있는 경우 (다른 노드 플레이어의 대리 세션)
+    protected ClientHandler(QuizServer server, int sessionId, String playerName) {
+        this.server = server;
+        this.sessionId = sessionId;
+        this.playerName = playerName;
     }
 
     @Override
@@ -24,7 +41,25 @@ public class ClientHandler implements Runnable {
                 Object received = in.readObject();
                 if (received instanceof String) {
                     String message = (String) received;
-                    handleMessage(message);
+                    Opcode opcode = Opcode.of(message);
+                    ServerMetrics.messageIn(opcode);
+                    InboundLimiter.Verdict verdict = limiter.check(opcode, message);
+                    if (verdict == InboundLimiter.Verdict.ACCEPT) {
+                        if (opcode == Opcode.ANSWER) {
+                            inboundTrace = AnswerTracer.sample(sessionId);
+                        }
+                        handleMessage(opcode, message);
+                        inboundTrace = null;
+                    } else if (verdict == InboundLimiter.Verdict.REJECT) {
+                        if (limiter.shouldNotify()) {
+                            send("메시지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도하세요.", Delivery.DROPPABLE);
+                        }
+                    } else {
+                        server.printDisplay(playerName + " 플레이어가 제한을 계속 넘어 연결을 끊습니다. (누적 거절 "
+                                + InboundLimiter.getRejectedTotal() + "건)");
+                        disconnect();
+                        return;
+                    }
                 }
             }
         } catch (IOException | ClassNotFoundException e) {
@@ -32,41 +67,164 @@ public class ClientHandler implements Runnable {
                 server.printDisplay(playerName + " 플레이어와의 연결이 끊어졌습니다.");
             }
         } finally {
-            disconnect();
+            server.connectionClosed();
+            if (!closing) {
+                // 바로 방에서 빼지 않고 재접속을 기다린다
+                closeSocket();
+                server.connectionLost(this);
+            }
         }
     }
 
-    private void handleMessage(String message) {
-        if (message.startsWith("ID:")) {
-            playerName = message.substring(3);
+    private void handleMessage(Opcode opcode, String message) {
+        if (opcode == Opcode.ID) {
+            if (sessionId >= 0) {
+                // 같은 연결에서 ID를 다시 보내면 새 세션을 만들지 않고 기존 세션을 다시 알려 준다
+                send("SESSION:" + sessionId + ":" + resumeToken);
+                return;
+            }
+            playerName = message.substring(opcode.argStart());
+            sessionId = server.registerSession(this);
+            resumeToken = server.issueResumeToken(this);
+            send("SESSION:" + sessionId + ":" + resumeToken);
             server.printDisplay(playerName + " 플레이어가 접속했습니다.");
+        } else if (opcode == Opcode.RESUME) {
+            // RESUME:<토큰>:<클라이언트가 받은 메시지 수>
+            try {
+                MessageFields fields = new MessageFields(message, opcode.argStart(), ':');
+                server.resumeSession(this, fields.nextString(), fields.nextLong());
+            } catch (IllegalArgumentException e) {
+                server.rejectResume(this);
+            }
+        } else if (opcode == Opcode.QUIT) {
+            disconnect();
         } else {
-            // 모든 메시지를 QuizServer의 handleMessage로 위임
-            server.handleMessage(this, message);
+            // 나머지는 QuizServer의 handleMessage로 위임
+            server.handleMessage(this, opcode, message);
         }
     }
 
     public void send(String message) {
-        try {
-            out.writeObject(message);
-            out.flush();
-        } catch (IOException e) {
-            server.printDisplay(playerName + " 플레이어에게 메시지 전송 실패: " + e.getMessage());
+        send(message, Delivery.CRITICAL);
+    }
+
+    // 게임 이벤트 처리 중이면 MessageBatch에 모으고, 아니면 바로 송신 버퍼에 넣는다
+    public void send(String message, Delivery delivery) {
+        if (!MessageBatch.add(this, message, delivery)) {
+            deliver(message, delivery);
         }
     }
 
-    public void disconnect() {
+    // 실제 전송은 세션의 송신 스레드가 하므로 여기서는 기다리지 않는다
+    protected void deliver(String message, Delivery delivery) {
+        ServerMetrics.messageOut(message);
+        outbox.send(message, delivery);
+    }
+
+    // 이벤트 하나에서 모인 메시지를 한 프레임으로 보낸다 (대리 세션은 deliver가 담당 노드로 넘긴다)
+    protected void deliverBatch(List<String> messages, Delivery delivery) {
+        if (messages.size() == 1) {
+            deliver(messages.get(0), delivery);
+            return;
+        }
+        deliver(MessageBatch.encode(messages), delivery);
+    }
+
+    // 읽기 스레드에서 QuizServer가 ANSWER를 처리하는 동안만 유효하다
+    AnswerTrace getInboundTrace() {
+        return inboundTrace;
+    }
+
+    // 이 세션에 다음으로 들어가는 메시지(채점 결과 프레임)가 소켓에 쓰이면 추적을 끝낸다
+    void traceNextWrite(AnswerTrace trace) {
+        if (outbox == null) {
+            AnswerTracer.finish(trace);     // 대리 세션: 전송은 다른 노드가 한다
+        } else {
+            outbox.traceNextWrite(trace);
+        }
+    }
+
+    // 송신 스레드에서 호출: 소켓을 닫아 읽기 쪽도 끊긴 것을 알게 한다 (이후 재접속 대기)
+    void outboxWriteFailed() {
+        server.printDisplay(playerName + " 플레이어에게 메시지 전송 실패");
+        closeSocket();
+    }
+
+    // 보내는 쪽이 send()를 부른 스레드에서 호출되므로 정리는 서버에 넘긴다
+    void outboxOverflowed() {
+        server.evictSlowConsumer(this);
+    }
+
+    int getBacklog() {
+        return outbox.getBacklog();
+    }
+
+    /**
+     * 끊긴 세션을 이 연결로 이어받는다. 받지 못한 메시지는 이전 세션의 outbox에서 다시 보낸다.
+     * @return 이어받았으면 true, 빠진 메시지가 버퍼에 없으면 false
+     */
+    boolean adoptSession(ClientHandler previous, long receivedCount) {
+        if (!previous.outbox.attach(out, receivedCount, this)) {
+            return false;
+        }
+        this.sessionId = previous.sessionId;
+        this.playerName = previous.playerName;
+        this.resumeToken = previous.resumeToken;
+        this.outbox = previous.outbox;
+        return true;
+    }
+
+    // 서버 재시작 전 세션을 이어받는다. 다시 보낼 메시지는 없고 순번만 클라이언트에 맞춘다.
+    boolean adoptRestoredSession(int sessionId, String playerName, String resumeToken, long receivedCount) {
+        if (!outbox.restartAt(receivedCount)) {
+            return false;
+        }
+        this.sessionId = sessionId;
+        this.playerName = playerName;
+        this.resumeToken = resumeToken;
+        return true;
+    }
+
+    void detachOutbox() {
+        outbox.detach();
+    }
+
+    boolean isAttached() {
+        return outbox.isAttached();
+    }
+
+    long getSentCount() {
+        return outbox.getSentCount();
+    }
+
+    void closeSocket() {
         try {
             if (clientSocket != null && !clientSocket.isClosed()) {
                 clientSocket.close();
             }
-            server.removeClient(this);
         } catch (IOException e) {
             server.printDisplay(playerName + " 플레이어 연결 종료 중 오류 발생: " + e.getMessage());
         }
     }
 
+    public void disconnect() {
+        closing = true;
+        if (outbox != null) {
+            outbox.detach();
+        }
+        closeSocket();
+        server.removeClient(this);
+    }
+
+    public int getSessionId() {
+        return sessionId;
+    }
+
     public String getPlayerName() {
         return playerName;
     }
-}
\ No newline at end of file
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+}
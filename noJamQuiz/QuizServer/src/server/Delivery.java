@@ -0,0 +1,30 @@
+package server;
+
+// 메시지를 받는 쪽이 밀려 있을 때(SessionOutbox.SOFT_LIMIT 초과) 어떻게 다룰지
+//   CRITICAL  : 항상 보낸다 (문제, 점수, 방 입장 등 게임 진행에 필요한 메시지)
+//   DROPPABLE : 버린다 (채팅, 관전 변경분처럼 놓쳐도 게임이 계속되는 메시지)
+//   latest(키): 아직 못 보낸 같은 키의 메시지를 새 메시지로 바꾼다 (방 목록, 답변 현황처럼 마지막 값만 의미 있는 메시지)
+public final class Delivery {
+    public static final Delivery CRITICAL = new Delivery(false, null);
+    public static final Delivery DROPPABLE = new Delivery(true, null);
+
+    private final boolean droppable;
+    private final String conflationKey;
+
+    private Delivery(boolean droppable, String conflationKey) {
+        this.droppable = droppable;
+        this.conflationKey = conflationKey;
+    }
+
+    public static Delivery latest(String key) {
+        return new Delivery(true, key);
+    }
+
+    public boolean isDroppable() {
+        return droppable;
+    }
+
+    public String getConflationKey() {
+        return conflationKey;
+    }
+}
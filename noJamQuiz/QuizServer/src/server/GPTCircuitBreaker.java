@@ -0,0 +1,173 @@
+package server;
+
+import java.util.function.Consumer;
+
+// GPT 호출용 서킷 브레이커
+// 최근 windowSize번 호출의 실패율과 느린 호출 비율을 보고, 기준을 넘으면 일정 시간 동안 호출을 막는다.
+// 막혀 있는 동안 GameManager는 곧바로 파일 문제로 빈 자리를 채운다.
+public class GPTCircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMillis;
+    private final double slowCallRateThreshold;
+    private final long openMillis;
+
+    // 최근 호출 결과 (원형 버퍼)
+    private final boolean[] failedWindow;
+    private final boolean[] slowWindow;
+    private final long[] latencyWindow;
+    private int next;
+    private int count;
+    private int failures;
+    private int slowCalls;
+    private long latencySum;
+
+    private State state;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    // 누적 지표
+    private long totalCalls;
+    private long totalFailures;
+    private long rejectedCalls;
+    private long openCount;
+
+    private volatile Consumer<String> logger = System.out::println;    // 상태 전이 로그 (서버는 printDisplay로 바꾼다)
+
+    public GPTCircuitBreaker() {
+        // 최근 20회 중 50% 이상 실패하거나 60% 이상이 15초를 넘기면 30초간 차단
+        this(20, 5, 0.5, 15000, 0.6, 30000);
+    }
+
+    public GPTCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                             long slowCallMillis, double slowCallRateThreshold, long openMillis) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openMillis = openMillis;
+        this.failedWindow = new boolean[windowSize];
+        this.slowWindow = new boolean[windowSize];
+        this.latencyWindow = new long[windowSize];
+        this.state = State.CLOSED;
+    }
+
+    public void setLogger(Consumer<String> logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * 호출을 해도 되는지 확인한다. OPEN 상태에서 차단 시간이 지나면 HALF_OPEN으로 바꾸고 한 번만 시험 호출을 허용한다.
+     * @return 호출 가능하면 true
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                rejectedCalls++;
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejectedCalls++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    // 상태를 바꾸지 않고 지금 호출이 허용될지만 확인한다.
+    public synchronized boolean isCallPermitted() {
+        if (state == State.OPEN) {
+            return System.currentTimeMillis() - openedAt >= openMillis;
+        }
+        return state == State.CLOSED || !trialInFlight;
+    }
+
+    public synchronized void recordSuccess(long latencyMillis) {
+        record(false, latencyMillis);
+    }
+
+    public synchronized void recordFailure(long latencyMillis) {
+        record(true, latencyMillis);
+    }
+
+    private void record(boolean failed, long latencyMillis) {
+        totalCalls++;
+        if (failed) {
+            totalFailures++;
+        }
+        boolean slow = latencyMillis >= slowCallMillis;
+
+        if (count == windowSize) {
+            if (failedWindow[next]) failures--;
+            if (slowWindow[next]) slowCalls--;
+            latencySum -= latencyWindow[next];
+        } else {
+            count++;
+        }
+        failedWindow[next] = failed;
+        slowWindow[next] = slow;
+        latencyWindow[next] = latencyMillis;
+        if (failed) failures++;
+        if (slow) slowCalls++;
+        latencySum += latencyMillis;
+        next = (next + 1) % windowSize;
+
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (failed || slow) {
+                open();
+            } else {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED && count >= minimumCalls
+                && (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        openCount++;
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        count = 0;
+        failures = 0;
+        slowCalls = 0;
+        latencySum = 0;
+    }
+
+    private void transition(State newState) {
+        if (state != newState) {
+            logger.accept("GPT Circuit Breaker: " + state + " -> " + newState + " (" + snapshot() + ")");
+            state = newState;
+        }
+    }
+
+    public synchronized State getState() { return state; }
+    public synchronized double getFailureRate() { return count == 0 ? 0 : (double) failures / count; }
+    public synchronized double getSlowCallRate() { return count == 0 ? 0 : (double) slowCalls / count; }
+    public synchronized long getAverageLatencyMillis() { return count == 0 ? 0 : latencySum / count; }
+    public synchronized long getTotalCalls() { return totalCalls; }
+    public synchronized long getTotalFailures() { return totalFailures; }
+    public synchronized long getRejectedCalls() { return rejectedCalls; }
+    public synchronized long getOpenCount() { return openCount; }
+
+    // 로그용 지표 한 줄
+    public synchronized String snapshot() {
+        return String.format("state=%s failureRate=%.2f slowRate=%.2f avgLatency=%dms calls=%d failures=%d rejected=%d opened=%d",
+                state, getFailureRate(), getSlowCallRate(), getAverageLatencyMillis(),
+                totalCalls, totalFailures, rejectedCalls, openCount);
+    }
+}
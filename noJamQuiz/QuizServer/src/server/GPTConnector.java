@@ -4,117 +4,278 @@ import model.Quiz;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public class GPTConnector {
     private static final String API_URL = "https://api.openai.com/v1/chat/completions";
     private static final String API_KEY = "";// OpenAI API 키 입력 필요 노션에서 빨간색으로 되어있는거 그대로 복붙
+    // -Dgpt.api.url=... 로 엔드포인트를 바꿀 수 있다 (로컬 스텁 서버 등)
+    private static final String DEFAULT_API_URL = System.getProperty("gpt.api.url", API_URL);
+    private static final String MODEL = "ft:gpt-4o-2024-08-06:whalewhale:quizmodel:Adg96qWt";
+
+    private static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+    // 게임 서버는 기본으로 SSE 스트림으로 받는다. -Dgpt.stream=false 면 응답 전체를 한 번에 받는다.
+    public static final boolean STREAM_BY_DEFAULT = Boolean.parseBoolean(System.getProperty("gpt.stream", "true"));
+    // -Dgpt.debug=true 면 요청 본문과 받은 내용까지 로그에 남긴다
+    private static final boolean DEBUG = Boolean.getBoolean("gpt.debug");
+
+    private String apiUrl;
+    private boolean stream;     // true 면 SSE(stream: true)로 받아 토큰 단위로 읽는다
+    private GPTCircuitBreaker circuitBreaker;
+    private ScheduledExecutorService deadlineScheduler;    // 제한 시간이 되면 연결을 끊는다 (null 이면 스트림 조각 사이에서만 확인)
+    private Consumer<String> logger = System.out::println; // 오류와 디버그 로그 (서버는 printDisplay로 바꾼다)
+
+    public GPTConnector() {
+        this(false, null, null);
+    }
+
+    public GPTConnector(boolean stream, GPTCircuitBreaker circuitBreaker, ScheduledExecutorService deadlineScheduler) {
+        this(DEFAULT_API_URL, stream, circuitBreaker, deadlineScheduler);
+    }
+
+    public GPTConnector(String apiUrl, boolean stream, GPTCircuitBreaker circuitBreaker,
+                        ScheduledExecutorService deadlineScheduler) {
+        this.apiUrl = apiUrl;
+        this.stream = stream;
+        this.circuitBreaker = circuitBreaker;
+        this.deadlineScheduler = deadlineScheduler;
+    }
+
+    public void setLogger(Consumer<String> logger) {
+        this.logger = logger;
+    }
+
+    public String getModel() {
+        return MODEL;
+    }
 
     public String generateQuiz(String category) {
+        return generateQuiz(category, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public String generateQuiz(String category, int timeoutMillis) {
+        return generateQuiz(category, timeoutMillis, delta -> { });
+    }
+
+    /**
+     * 퀴즈 하나를 요청한다. 서킷 브레이커가 열려 있으면 호출하지 않고 바로 null을 반환한다.
+     * 스트림 모드에서는 토큰 조각이 도착할 때마다 onDelta 로 넘겨 호출자가 바로 파싱할 수 있게 한다.
+     * @param timeoutMillis 호출 한 번 전체의 제한 시간 (연결부터 마지막 조각까지)
+     * @return 추출한 content, 실패하거나 차단되었으면 null
+     */
+    public String generateQuiz(String category, int timeoutMillis, Consumer<String> onDelta) {
+        QuizEvents.GptRequest event = new QuizEvents.GptRequest();
+        event.begin();
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            logger.accept("GPT 호출 차단됨: " + circuitBreaker.snapshot());
+            ServerMetrics.GPT_BLOCKED.inc();
+            commitRequestEvent(event, category, timeoutMillis, "circuit_open");
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        String content = null;
+        try {
+            content = requestQuiz(category, timeoutMillis, onDelta);
+            return content;
+        } finally {
+            (content != null ? ServerMetrics.GPT_REQUEST_OK : ServerMetrics.GPT_REQUEST_FAILED)
+                    .observeNanos(ServerMetrics.since(startNanos));
+            commitRequestEvent(event, category, timeoutMillis, content != null ? "ok" : "failed");
+            if (circuitBreaker != null) {
+                long elapsed = System.currentTimeMillis() - start;
+                if (content != null) {
+                    circuitBreaker.recordSuccess(elapsed);
+                } else {
+                    circuitBreaker.recordFailure(elapsed);
+                }
+            }
+        }
+    }
+
+    private static void commitRequestEvent(QuizEvents.GptRequest event, String category, int timeoutMillis, String outcome) {
+        if (event.shouldCommit()) {
+            event.category = category;
+            event.timeout = timeoutMillis;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private String requestQuiz(String category, int timeoutMillis, Consumer<String> onDelta) {
+        // 읽기 제한 시간은 read 한 번마다 다시 시작되어 조각이 조금씩 오면 끝없이 늘어난다.
+        // 그래서 호출 전체의 마감 시각을 따로 두고, 그때가 되면 연결을 끊어 막힌 read를 깨운다.
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        HttpURLConnection connection = null;
+        ScheduledFuture<?> deadlineTask = null;
         try {
-            URL url = new URL(API_URL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            URL url = new URL(apiUrl);
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            if (deadlineScheduler != null) {
+                HttpURLConnection target = connection;
+                deadlineTask = deadlineScheduler.schedule(target::disconnect, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
             connection.setRequestMethod("POST");
             connection.setRequestProperty("Authorization", "Bearer " + API_KEY);
             connection.setRequestProperty("Content-Type", "application/json");
             connection.setDoOutput(true);
 
             String requestBody = String.format("{" +
-                    "\"model\": \"ft:gpt-4o-2024-08-06:whalewhale:quizmodel:Adg96qWt\"," +
+                    "\"model\": \"%s\"," +
                     "\"messages\": [" +
                     "{\"role\": \"system\", \"content\": \"당신은 퀴즈 출제자입니다. '질문: [문제] 답변: [답]' 형식으로 퀴즈를 출제해주세요.\"}," +
                     "{\"role\": \"user\", \"content\": \"%s 카테고리의 퀴즈를 하나만 출제해주세요.\"}" +
                     "]," +
-                    "\"temperature\": 0.7" +
-                    "}", category);
+                    "\"temperature\": 0.7," +
+                    "\"stream\": %b" +
+                    "}", MODEL, category, stream);
 
-            System.out.println("Request Body: " + requestBody);
+            if (DEBUG) {
+                logger.accept("Request Body: " + requestBody);
+            }
 
             try (OutputStream os = connection.getOutputStream()) {
-                os.write(requestBody.getBytes());
+                os.write(requestBody.getBytes(StandardCharsets.UTF_8));
             }
 
             int responseCode = connection.getResponseCode();
-            System.out.println("Response Code: " + responseCode);
+            if (DEBUG) {
+                logger.accept("Response Code: " + responseCode);
+            }
 
             if (responseCode != 200) {
+                ServerMetrics.GPT_HTTP_ERRORS.inc();
                 try (BufferedReader br = new BufferedReader(
-                        new InputStreamReader(connection.getErrorStream()))) {
+                        new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8))) {
                     StringBuilder errorResponse = new StringBuilder();
                     String line;
                     while ((line = br.readLine()) != null) {
                         errorResponse.append(line);
                     }
-                    System.out.println("Error Response: " + errorResponse.toString());
+                    logger.accept("GPT API Error Response (" + responseCode + "): " + errorResponse);
                 }
                 return null;
             }
 
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(connection.getInputStream()))) {
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
+            String content;
+            try (InputStream is = connection.getInputStream()) {
+                if (stream) {
+                    // 초안이 문제와 답을 다 받았으면 모델이 덧붙이는 나머지 토큰은 기다리지 않는다
+                    QuizDraft draft = onDelta instanceof QuizDraft ? (QuizDraft) onDelta : null;
+                    BooleanSupplier done = () -> (draft != null && draft.isComplete())
+                            || System.currentTimeMillis() >= deadline;
+                    content = ChatCompletionReader.readStream(is, onDelta, done);
+                } else {
+                    content = ChatCompletionReader.readContent(is);
                 }
-                System.out.println("GPT Response: " + response.toString());
-
-                String jsonResponse = response.toString();
-                int contentStart = jsonResponse.indexOf("\"content\": \"") + 11;
-                int contentEnd = jsonResponse.indexOf("\",", contentStart);
-                String content = jsonResponse.substring(contentStart, contentEnd)
-                        .replace("\\n", "\n")
-                        .replace("\"", "");  // 따옴표 제거
-
-                System.out.println("Extracted Content: " + content);
-                return content;
             }
 
+            if (DEBUG) {
+                logger.accept("Extracted Content: " + content);
+            }
+            return content;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("GPT API Error: " + e.getMessage());
+            ServerMetrics.GPT_EXCEPTIONS.inc();
+            if (System.currentTimeMillis() >= deadline) {
+                logger.accept("GPT API 제한 시간 초과 (" + timeoutMillis + "ms)");
+            } else {
+                logger.accept("GPT API Error: " + e);
+            }
             return null;
+        } finally {
+            if (deadlineTask != null) {
+                deadlineTask.cancel(false);
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
         }
     }
 
     public Quiz parseQuizResponse(String response) {
         try {
-            System.out.println("Parsing Quiz Response: " + response);
-
-            String[] parts = response.split("\n");
-            String question = "";
-            String answer = "";
-
-            for (String part : parts) {
-                part = part.trim();  // 앞뒤 공백 제거
-                if (part.startsWith("질문:")) {
-                    question = part.substring("질문:".length()).trim();
-                    System.out.println("Found Question: " + question);
-                } else if (part.startsWith("답변:")) {
-                    answer = part.substring("답변:".length()).trim();
-                    System.out.println("Found Answer: " + answer);
-                }
+            if (DEBUG) {
+                logger.accept("Parsing Quiz Response: " + response);
             }
+            QuizDraft draft = new QuizDraft();
+            draft.accept(response);
+            Quiz quiz = draft.toQuiz();
+            if (DEBUG) {
+                logger.accept("Final Question: " + draft.question + " / Final Answer: " + draft.answer);
+            }
+            return quiz;
+        } catch (Exception e) {
+            logger.accept("Quiz Parsing Error: " + e);
+            return null;
+        }
+    }
 
-            System.out.println("Final Question: " + question);
-            System.out.println("Final Answer: " + answer);
+    /**
+     * 스트림 조각을 받는 대로 줄 단위로 "질문:" / "답변:"을 읽어 두는 퀴즈 초안.
+     * generateQuiz 의 onDelta 로 넘기면 답변 줄이 끝나는 즉시 읽기를 멈추고,
+     * 요청이 도중에 끊겨(읽기 시간 초과 등) generateQuiz 가 null 이어도 이미 받은 만큼으로 문제를 만들 수 있다.
+     */
+    public static class QuizDraft implements Consumer<String> {
+        private final StringBuilder line = new StringBuilder();
+        private String question = "";
+        private String answer = "";
+        private boolean answerLineEnded;
 
-            if (!question.isEmpty() && !answer.isEmpty()) {
-                Quiz quiz = new Quiz(
-                        question,
-                        answer,
-                        Quiz.QuizType.SHORT_ANSWER,
-                        "AI 생성 퀴즈"
-                );
-                quiz.setTimeLimit(20);
-                quiz.setPoints(10);
-                return quiz;
+        @Override
+        public void accept(String delta) {
+            for (int i = 0; i < delta.length(); i++) {
+                char c = delta.charAt(i);
+                if (c == '\n') {
+                    endLine();
+                } else {
+                    line.append(c);
+                }
             }
+        }
 
-            return null;
-        } catch (Exception e) {
-            System.out.println("Quiz Parsing Error: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+        private void endLine() {
+            String part = line.toString().trim();   // 앞뒤 공백 제거
+            line.setLength(0);
+            if (part.startsWith("질문:")) {
+                question = part.substring("질문:".length()).trim();
+            } else if (part.startsWith("답변:")) {
+                answer = part.substring("답변:".length()).trim();
+                answerLineEnded = !answer.isEmpty();
+            }
+        }
+
+        // 문제와 답을 모두 받았고 답 줄도 끝났으면 더 읽을 필요가 없다
+        public boolean isComplete() {
+            return answerLineEnded && !question.isEmpty();
+        }
+
+        /**
+         * 아직 끝나지 않은 마지막 줄까지 반영해 퀴즈를 만든다.
+         * @return 문제나 답이 없으면 null
+         */
+        public Quiz toQuiz() {
+            if (line.length() > 0) {
+                endLine();
+            }
+            if (question.isEmpty() || answer.isEmpty()) {
+                return null;
+            }
+            Quiz quiz = new Quiz(
+                    question,
+                    answer,
+                    Quiz.QuizType.SHORT_ANSWER,
+                    "AI 생성 퀴즈"
+            );
+            quiz.setTimeLimit(20);
+            quiz.setPoints(10);
+            return quiz;
         }
     }
 }
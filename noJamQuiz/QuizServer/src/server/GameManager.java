@@ -1,104 +1,221 @@
 package server;
 
 import model.Quiz;
+import model.QuizCacheDAO;
 import model.QuizDataDAO;
 import model.QuestionDTO;
+import model.RPS;
 import model.Room;
+import model.RoomCheckpointDAO;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public class GameManager {
+    private static final long GPT_BUDGET_MILLIS = 20000;   // 방 하나가 GPT 퀴즈 생성에 쓸 수 있는 최대 시간
+    private static final long RPS_ROUND_MILLIS = 10000;    // 가위바위보 한 판의 선택 제한 시간
+    private static final int MAX_RPS_ROUNDS = 5;           // 계속 비기면 이 판수 이후 무작위로 승자 결정
+
+    // 대형 방 모드: 참가자가 많으면 답변마다 방 전체에 알리지 않고 짧은 주기로 모아서 요약만 보낸다
+    // (답변마다 브로드캐스트하면 문제당 메시지가 인원수의 제곱에 비례한다)
+    private static final int LARGE_ROOM_THRESHOLD = 20;
+    private static final long SUMMARY_INTERVAL_MILLIS = 1000;
+    private static final Delivery SUMMARY_DELIVERY = Delivery.latest("ANSWER_SUMMARY");   // 밀려 있으면 최신 현황만
+    private static final int FASTEST_COUNT = 5;            // 요약에 표시할 가장 빠른 정답자 수
+    private static final int LARGE_ROOM_RESULT_COUNT = 10; // 대형 방 GAME_END에 넣을 상위 인원
+    private static final long RESTORE_MIN_REMAINING_MILLIS = 10000; // 재시작 후 복원한 문제는 최소 이만큼 시간을 준다
+
     private QuizServer server;
     private int roomId;
     private List<Quiz> quizList;
     private int currentQuizIndex;
-    private Map<String, Integer> playerScores;
-    private Map<String, Boolean> currentQuizAnswered;
-    private Timer quizTimer;
-    private boolean isGameStarted;
-    private int remainingTime;
+    private Leaderboard playerScores;   // 슬롯별 점수와 실시간 순위 (0점이면 아직 점수 없음)
+    private AnswerTracker currentQuizAnswered;  // 플레이어별 슬롯 + 답변 비트셋
+    private ScheduledFuture<?> quizTimer;
+    private int questionSeq;            // 문제마다 증가, 지난 문제의 타이머 이벤트를 걸러내는 데 사용
+    private volatile boolean isGameStarted;
+    private long quizDeadline;          // 현재 문제의 마감 시각 (epoch ms)
+    private final RoomActor actor;      // 게임 상태 변경은 모두 이 액터에서 순서대로 처리
+    private final SpectatorFeed spectators; // 관전자에게는 상태 값만 넘기고 전송은 피드가 따로 한다
     private GPTConnector gptConnector;
     private boolean useGPT;
+    private boolean resultsSent;        // GAME_END를 이미 보냈는지 (중복 전송 방지)
+
+    // 동점자 가위바위보 진행 상태 (진행 중이 아니면 rpsSlots == null)
+    private int[] rpsSlots;
+    private RPS[] rpsChoices;
+    private int rpsChosenCount;
+    private int rpsRound;
+    private QuizEvents.RpsTiebreak rpsEvent;    // 판 시작에 begin한 JFR 이벤트 (꺼져 있으면 null)
+
+    // 대형 방 모드의 문제별 집계 (액터 안에서만 접근)
+    private boolean largeRoom;
+    private ScheduledFuture<?> summaryTimer;
+    private long questionStartedAt;
+    private long questionStartedNanos;      // 문제 진행 시간 지표용 (단조 시계)
+    private boolean lastAnswerCorrect;      // 마지막으로 채점한 답변의 정답 여부 (JFR 이벤트용)
+    private int correctCount;
+    private int wrongCount;
+    private boolean summaryDirty;
+    private final int[] fastestSlots = new int[FASTEST_COUNT];
+    private final long[] fastestMillis = new long[FASTEST_COUNT];
+    private int fastestSize;
 
     public GameManager(QuizServer server, int roomId, boolean useGPT) {
         this.server = server;
         this.roomId = roomId;
         this.quizList = new ArrayList<>();
-        this.playerScores = new HashMap<>();
-        this.currentQuizAnswered = new HashMap<>();
+        this.playerScores = new Leaderboard(0, 0);
+        this.currentQuizAnswered = new AnswerTracker();
         this.currentQuizIndex = 0;
         this.isGameStarted = false;
         this.useGPT = useGPT;
+        this.actor = new RoomActor("방 " + roomId, server.getGameExecutor(), server::printDisplay);
+        this.spectators = server.getSpectatorFeed(roomId);
+        spectators.clear();
+        spectators.setStandingsRefresher(() -> actor.tell(this::publishStandings));
+        spectators.publish(SpectatorFeed.STATUS, "게임 준비 중...");
         if (useGPT) {
-            this.gptConnector = new GPTConnector();
+            this.gptConnector = new GPTConnector(GPTConnector.STREAM_BY_DEFAULT, server.getGptCircuitBreaker(),
+                    server.getGameScheduler());
+            this.gptConnector.setLogger(server::printDisplay);
             server.printDisplay("GPT 모드로 게임을 시작합니다.");
             server.broadcastToRoom(roomId, "GPT 모드로 게임이 시작됩니다. 잠시만 기다려주세요...");
         } else {
             server.printDisplay("일반 모드로 게임을 시작합니다.");
             server.broadcastToRoom(roomId, "일반 모드로 게임이 시작됩니다.");
         }
-        initializeQuizzes();
     }
 
-    private void initializeQuizzes() {
-        if (useGPT) {
-            initializeGPTQuizzes();
-        } else {
-            initializeFileQuizzes();
-        }
+    // 체크포인트에서 복원한 게임. 문제를 새로 만들지 않고 저장된 문제와 점수로 이어서 진행한다.
+    public GameManager(QuizServer server, int roomId, RoomCheckpointDAO.GameState state) {
+        this.server = server;
+        this.roomId = roomId;
+        this.quizList = new ArrayList<>(state.quizzes);
+        this.playerScores = new Leaderboard(0, 0);
+        this.currentQuizAnswered = new AnswerTracker();
+        this.useGPT = state.useGPT;
+        this.actor = new RoomActor("방 " + roomId, server.getGameExecutor(), server::printDisplay);
+        this.spectators = server.getSpectatorFeed(roomId);
+        spectators.clear();
+        spectators.setStandingsRefresher(() -> actor.tell(this::publishStandings));
+        actor.tell(() -> processRestore(state));
     }
 
-    private void initializeGPTQuizzes() {
+    // 문제 준비 스레드에서 실행된다. 액터 상태는 건드리지 않고 만든 목록만 돌려준다.
+    private List<Quiz> initializeQuizzes() {
+        return useGPT ? initializeGPTQuizzes() : initializeFileQuizzes();
+    }
+
+    private List<Quiz> initializeGPTQuizzes() {
         Room room = server.getRoom(roomId);
-        try {
-            int targetQuizCount = room.getQuestionCount();
-            server.printDisplay("GPT를 통해 " + targetQuizCount + "개의 퀴즈를 생성합니다.");
+        int targetQuizCount = room.getQuestionCount();
+        String category = room.getCategory().getKoreanName();
+        QuizCacheDAO quizCache = server.getQuizCache();
+        GPTCircuitBreaker circuitBreaker = server.getGptCircuitBreaker();
+        long deadline = System.currentTimeMillis() + GPT_BUDGET_MILLIS;
+        List<Quiz> quizzes = new ArrayList<>();
+
+        // 캐시에 있는 문제부터 사용하고, 모자라는 만큼만 GPT로 생성
+        for (Quiz quiz : quizCache.take(category, gptConnector.getModel(), targetQuizCount)) {
+            quiz.setTimeLimit(room.getTimePerQuestion());
+            quiz.setPoints(10);
+            quizzes.add(quiz);
+        }
+        if (!quizzes.isEmpty()) {
+            server.printDisplay("캐시에서 " + quizzes.size() + "개의 GPT 퀴즈를 가져왔습니다.");
+        }
+
+        int missing = targetQuizCount - quizzes.size();
+        if (missing > 0) {
+            server.printDisplay("GPT를 통해 " + missing + "개의 퀴즈를 생성합니다.");
             server.broadcastToRoom(roomId, "GPT를 통해 퀴즈를 생성하고 있습니다. 잠시만 기다려주세요...");
+        }
 
-            for (int i = 0; i < targetQuizCount; i++) {
-                String response = gptConnector.generateQuiz(room.getCategory().getKoreanName());
-                if (response == null) {
-                    throw new Exception("GPT 응답이 null입니다.");
+        try {
+            while (quizzes.size() < targetQuizCount) {
+                // 브레이커가 열려 있거나 방의 생성 시간 예산을 다 쓰면 남은 자리는 파일 문제로 채운다
+                long remaining = deadline - System.currentTimeMillis();
+                if (!circuitBreaker.isCallPermitted()) {
+                    server.printDisplay("GPT 호출이 차단되어 있습니다. (" + circuitBreaker.snapshot() + ")");
+                    break;
+                }
+                if (remaining <= 0) {
+                    server.printDisplay("GPT 퀴즈 생성 시간 예산(" + GPT_BUDGET_MILLIS + "ms)을 모두 사용했습니다.");
+                    break;
                 }
 
-                Quiz quiz = gptConnector.parseQuizResponse(response);
+                // 스트림으로 받으면 토큰이 오는 대로 초안에 쌓는다. 응답이 도중에 끊겨도 문제와 답을 다 받았으면 쓴다.
+                GPTConnector.QuizDraft draft = new GPTConnector.QuizDraft();
+                String response = gptConnector.generateQuiz(category, (int) remaining, draft);
+                Quiz quiz;
+                if (response != null) {
+                    quiz = gptConnector.parseQuizResponse(response);
+                } else {
+                    quiz = draft.toQuiz();
+                    if (quiz == null) {
+                        server.printDisplay("GPT 퀴즈 생성 실패: GPT 응답이 null입니다.");
+                        continue;
+                    }
+                    server.printDisplay("GPT 응답이 도중에 끊겼지만 받은 부분으로 퀴즈를 만들었습니다.");
+                }
                 if (quiz == null) {
-                    throw new Exception("퀴즈 파싱에 실패했습니다.");
+                    server.printDisplay("GPT 퀴즈 생성 실패: 퀴즈 파싱에 실패했습니다.");
+                    continue;
                 }
 
+                quizCache.put(category, gptConnector.getModel(), quiz);
                 quiz.setTimeLimit(room.getTimePerQuestion());
                 quiz.setPoints(10);
-                quizList.add(quiz);
+                quizzes.add(quiz);
 
-                server.printDisplay("GPT 퀴즈 생성 완료 (" + (i + 1) + "/" + targetQuizCount + ")");
-                server.broadcastToRoom(roomId, "퀴즈 생성중... (" + (i + 1) + "/" + targetQuizCount + ")");
+                server.printDisplay("GPT 퀴즈 생성 완료 (" + quizzes.size() + "/" + targetQuizCount + ")");
+                server.broadcastToRoom(roomId, "퀴즈 생성중... (" + quizzes.size() + "/" + targetQuizCount + ")");
 
-                // API 호출 간격 조절
-                Thread.sleep(2000);
+                // API 호출 간격 조절 (남은 예산 안에서)
+                if (quizzes.size() < targetQuizCount) {
+                    Thread.sleep(Math.max(0, Math.min(2000, deadline - System.currentTimeMillis())));
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
-            server.printDisplay("GPT 퀴즈 생성이 모두 완료되었습니다. 총 " + quizList.size() + "개의 문제");
+        if (quizzes.size() >= targetQuizCount) {
+            server.printDisplay("GPT 퀴즈 생성이 모두 완료되었습니다. 총 " + quizzes.size() + "개의 문제");
             server.broadcastToRoom(roomId, "모든 퀴즈가 준비되었습니다. 게임을 시작합니다!");
+            return quizzes;
+        }
 
-        } catch (Exception e) {
-            server.printDisplay("GPT 퀴즈 생성 실패: " + e.getMessage());
-            if (!quizList.isEmpty()) {
-                // 이미 생성된 퀴즈가 있다면 그것으로 진행
-                server.printDisplay("생성된 " + quizList.size() + "개의 퀴즈로 진행합니다.");
-                server.broadcastToRoom(roomId, "퀴즈 생성이 일부 완료되었습니다. " + quizList.size() + "개의 문제로 진행합니다.");
-            } else {
-                // 아예 실패한 경우에만 일반 모드로 전환
-                server.printDisplay("GPT 퀴즈 생성에 완전히 실패했습니다. 일반 모드로 전환합니다.");
-                server.broadcastToRoom(roomId, "GPT 퀴즈 생성에 실패했습니다. 일반 모드로 전환됩니다.");
-                initializeFileQuizzes();
-            }
+        int gptCount = quizzes.size();
+        quizzes.addAll(loadFileQuizzes(targetQuizCount - gptCount));
+        if (gptCount > 0) {
+            server.printDisplay("GPT 퀴즈 " + gptCount + "개와 파일 퀴즈 " + (quizzes.size() - gptCount) + "개로 진행합니다.");
+            server.broadcastToRoom(roomId, "퀴즈 생성이 일부 완료되었습니다. 남은 문제는 일반 문제로 채웁니다.");
+        } else {
+            server.printDisplay("GPT 퀴즈 생성에 완전히 실패했습니다. 일반 모드로 전환합니다.");
+            server.broadcastToRoom(roomId, "GPT 퀴즈 생성에 실패했습니다. 일반 모드로 전환됩니다.");
         }
+        return quizzes;
     }
 
-    private void initializeFileQuizzes() {
+    private List<Quiz> initializeFileQuizzes() {
+        Room room = server.getRoom(roomId);
+        List<Quiz> quizzes = loadFileQuizzes(room.getQuestionCount());
+        server.printDisplay("파일 퀴즈 데이터 로드 완료: " + quizzes.size() + "개의 문제");
+        server.broadcastToRoom(roomId, "퀴즈 준비가 완료되었습니다!");
+        return quizzes;
+    }
+
+    // 파일 문제 은행에서 최대 count개를 무작위로 뽑는다. 파일을 읽지 못하면 기본 퀴즈 하나를 돌려준다.
+    private List<Quiz> loadFileQuizzes(int count) {
         Room room = server.getRoom(roomId);
         QuizDataDAO quizData = new QuizDataDAO();
+        List<Quiz> quizzes = new ArrayList<>();
 
         String currentPath = System.getProperty("user.dir");
         server.printDisplay("현재 작업 디렉토리: " + currentPath);
@@ -119,16 +236,13 @@ public class GameManager {
                 );
                 quiz.setTimeLimit(room.getTimePerQuestion());
                 quiz.setPoints(10);
-                quizList.add(quiz);
+                quizzes.add(quiz);
             }
 
-            Collections.shuffle(quizList);
-            while (quizList.size() > room.getQuestionCount()) {
-                quizList.remove(quizList.size() - 1);
+            Collections.shuffle(quizzes);
+            while (quizzes.size() > count) {
+                quizzes.remove(quizzes.size() - 1);
             }
-
-            server.printDisplay("파일 퀴즈 데이터 로드 완료: " + quizList.size() + "개의 문제");
-            server.broadcastToRoom(roomId, "퀴즈 준비가 완료되었습니다!");
         } else {
             server.printDisplay("퀴즈 파일 로드 실패. 기본 퀴즈를 사용합니다.");
             Quiz defaultQuiz = new Quiz(
@@ -138,111 +252,426 @@ public class GameManager {
                     "기본"
             );
             defaultQuiz.setTimeLimit(room.getTimePerQuestion());
-            quizList.add(defaultQuiz);
+            quizzes.add(defaultQuiz);
         }
+        return quizzes;
     }
 
+    // 아래 public 메서드들은 어느 스레드에서 불러도 되며, 실제 처리는 방 액터에서 일어난다.
+
+    // 문제 준비는 준비 스레드에서 하고(GPT 모드는 수십 초 걸릴 수 있다), 끝나면 액터에서 첫 문제를 낸다
     public void startGame() {
+        CompletableFuture.supplyAsync(this::initializeQuizzes, server.getQuizLoader())
+                .whenComplete((quizzes, error) -> actor.tell(() -> processQuizzesReady(quizzes, error)));
+    }
+
+    public void handleAnswer(int playerId, String answer) {
+        handleAnswer(playerId, answer, null);
+    }
+
+    /**
+     * @param trace 추적 표본이면 액터에서의 단계를 기록하고, 결과가 답한 사람에게 쓰일 때 끝낸다 (아니면 null)
+     */
+    public void handleAnswer(int playerId, String answer, AnswerTrace trace) {
+        long received = System.nanoTime();
+        actor.tell(() -> {
+            if (trace != null) {
+                trace.mark(AnswerTrace.Stage.ACTOR_START);
+            }
+            QuizEvents.AnswerChecked event = new QuizEvents.AnswerChecked();
+            event.begin();
+            long waited = ServerMetrics.since(received);
+            boolean graded = processAnswer(playerId, answer);
+            ServerMetrics.ANSWER_LATENCY.observeNanos(ServerMetrics.since(received));
+            if (event.shouldCommit()) {
+                event.roomId = roomId;
+                event.sessionId = playerId;
+                event.graded = graded;
+                event.correct = graded && lastAnswerCorrect;
+                event.mailboxWait = waited;
+                event.commit();
+            }
+            if (trace != null) {
+                trace.mark(AnswerTrace.Stage.GRADED);
+                trace.setGraded(graded);
+                server.traceResultWrite(playerId, trace);
+            }
+        });
+    }
+
+    public void playerLeft(int playerId) {
+        actor.tell(() -> processPlayerLeft(playerId));
+    }
+
+    public void endGame() {
+        actor.tell(this::processEndGame);
+    }
+
+    public void handleRPSChoice(int playerId, RPS choice) {
+        actor.tell(() -> processRPSChoice(playerId, choice));
+    }
+
+    private void processQuizzesReady(List<Quiz> quizzes, Throwable error) {
+        if (error != null) {
+            server.printDisplay("[방 " + roomId + "] 퀴즈 준비 실패: " + error);
+            server.broadcastToRoom(roomId, "퀴즈를 준비하지 못했습니다.");
+            return;
+        }
+        if (resultsSent) {
+            return;     // 준비하는 동안 방이 없어져 게임이 이미 끝남
+        }
+        quizList.addAll(quizzes);
+        processStartGame();
+    }
+
+    private void processStartGame() {
         if (!isGameStarted && !quizList.isEmpty()) {
+            QuizEvents.GameStarted event = new QuizEvents.GameStarted();
+            event.begin();
             isGameStarted = true;
-            playerScores.clear();
+            resultsSent = false;
             currentQuizIndex = 0;
-            resetCurrentQuizAnswered();
+            assignPlayerSlots();
+            largeRoom = currentQuizAnswered.slotCount() >= LARGE_ROOM_THRESHOLD;
 
             Room room = server.getRoom(roomId);
             if (room != null) {
                 // 모든 플레이어의 초기 점수를 0으로 설정
-                for (String playerName : room.getPlayers()) {
-                    server.broadcastToRoom(roomId, "SCORE:" + playerName + ":0");
+                if (largeRoom) {
+                    for (int playerId : room.getPlayerIds()) {
+                        server.sendToPlayer(roomId, playerId, "SCORE:" + room.getPlayerName(playerId) + ":0");
+                    }
+                    server.broadcastToRoom(roomId, String.format(
+                            "참가자가 %d명이라 대형 방 모드로 진행합니다. 개인 결과는 본인에게만, 전체 현황은 %d초마다 요약해서 알려드립니다.",
+                            currentQuizAnswered.slotCount(), SUMMARY_INTERVAL_MILLIS / 1000));
+                    startSummaryTimer();
+                } else {
+                    for (String playerName : room.getPlayers()) {
+                        server.broadcastToRoom(roomId, "SCORE:" + playerName + ":0");
+                    }
                 }
                 server.broadcastToRoom(roomId, "게임을 시작합니다!");
             }
             sendNextQuiz();
+            if (event.shouldCommit()) {
+                event.roomId = roomId;
+                event.players = currentQuizAnswered.slotCount();
+                event.questions = quizList.size();
+                event.largeRoom = largeRoom;
+                event.gpt = useGPT;
+                event.commit();
+            }
         }
     }
 
-    private void resetCurrentQuizAnswered() {
+    private void processRestore(RoomCheckpointDAO.GameState state) {
+        currentQuizAnswered.clear();
+        for (int slot = 0; slot < state.slotSessionIds.length; slot++) {
+            currentQuizAnswered.assign(state.slotSessionIds[slot], state.slotNames[slot]);
+        }
+        playerScores = new Leaderboard(currentQuizAnswered.slotCount(), quizList.size() * 10);
+        for (int slot = 0; slot < state.slotSessionIds.length; slot++) {
+            playerScores.add(slot, state.scores[slot]);
+            if (!state.active[slot]) {
+                currentQuizAnswered.deactivate(state.slotSessionIds[slot]);
+            }
+        }
+        largeRoom = currentQuizAnswered.slotCount() >= LARGE_ROOM_THRESHOLD;
+        currentQuizIndex = state.currentQuizIndex;
+        isGameStarted = true;
+        resultsSent = false;
+        server.printDisplay("방 " + roomId + "의 게임을 " + (currentQuizIndex + 1) + "번 문제부터 복원했습니다.");
+        server.broadcastToRoom(roomId, "서버가 다시 시작되어 게임을 이어서 진행합니다.");
+        if (largeRoom) {
+            startSummaryTimer();
+        }
+        if (currentQuizIndex < quizList.size()) {
+            sendQuiz(Math.max(state.remainingMillis, RESTORE_MIN_REMAINING_MILLIS));
+        } else {
+            processEndGame();
+        }
+    }
+
+    // 체크포인트용 상태 복사. 방 액터 안에서 배열만 복사하고, 파일 인코딩과 쓰기는 호출한 쪽 스레드가 한다.
+    public CompletableFuture<RoomCheckpointDAO.GameState> snapshot() {
+        CompletableFuture<RoomCheckpointDAO.GameState> future = new CompletableFuture<>();
+        actor.tell(() -> {
+            long start = System.nanoTime();
+            RoomCheckpointDAO.GameState state = new RoomCheckpointDAO.GameState();
+            state.useGPT = useGPT;
+            state.quizzes = new ArrayList<>(quizList);     // Quiz는 게임 중에 바뀌지 않으므로 목록만 복사
+            state.currentQuizIndex = isGameStarted ? currentQuizIndex : 0;
+            state.remainingMillis = Math.max(0, quizDeadline - System.currentTimeMillis());
+            int slotCount = currentQuizAnswered.slotCount();
+            state.slotSessionIds = new int[slotCount];
+            state.slotNames = new String[slotCount];
+            state.scores = new int[slotCount];
+            state.active = new boolean[slotCount];
+            for (int slot = 0; slot < slotCount; slot++) {
+                state.slotSessionIds[slot] = currentQuizAnswered.idOf(slot);
+                state.slotNames[slot] = currentQuizAnswered.nameOf(slot);
+                state.scores[slot] = slot < playerScores.size() ? playerScores.getScore(slot) : 0;
+                state.active[slot] = currentQuizAnswered.isActive(slot);
+            }
+            state.captureNanos = System.nanoTime() - start;
+            future.complete(state);
+        });
+        return future;
+    }
+
+    // 서버 재시작 후 다시 붙은 플레이어에게 현재 문제와 점수를 보낸다
+    public void resync(int playerId) {
+        actor.tell(() -> {
+            int slot = currentQuizAnswered.slotOf(playerId);
+            if (!isGameStarted || slot < 0 || currentQuizIndex >= quizList.size()) {
+                return;
+            }
+            server.sendToPlayer(roomId, playerId, "SCORE:" + currentQuizAnswered.nameOf(slot) + ":"
+                    + playerScores.getScore(slot));
+            server.sendToPlayer(roomId, playerId, "QUIZ:" + quizDeadline + "," + System.currentTimeMillis() + ":"
+                    + quizList.get(currentQuizIndex));
+        });
+    }
+
+    // 게임 시작 시 플레이어마다 고정 슬롯 번호를 배정한다
+    private void assignPlayerSlots() {
         currentQuizAnswered.clear();
         Room room = server.getRoom(roomId);
         if (room != null) {
-            for (String playerName : room.getPlayers()) {
-                currentQuizAnswered.put(playerName, false);
+            for (int playerId : room.getPlayerIds()) {
+                currentQuizAnswered.assign(playerId, room.getPlayerName(playerId));
             }
         }
+        playerScores = new Leaderboard(currentQuizAnswered.slotCount(), quizList.size() * 10);
     }
 
     private void sendNextQuiz() {
         if (currentQuizIndex < quizList.size()) {
-            Quiz currentQuiz = quizList.get(currentQuizIndex);
-            resetCurrentQuizAnswered();
-
-            server.broadcastToRoom(roomId, String.format("\n===== 문제 %d/%d =====",
-                    currentQuizIndex + 1, quizList.size()));
-            server.broadcastToRoom(roomId, "QUIZ:" + currentQuiz.toString());
-
-            startQuizTimer(currentQuiz.getTimeLimit());
+            sendQuiz(quizList.get(currentQuizIndex).getTimeLimit() * 1000L);
         } else {
-            endGame();
+            processEndGame();
         }
     }
 
-    public void handleAnswer(String playerName, String answer) {
-        if (currentQuizIndex >= quizList.size() || !isGameStarted) return;
-        if (currentQuizAnswered.getOrDefault(playerName, false)) return;
+    private void sendQuiz(long timeLimitMillis) {
+        QuizEvents.QuestionSent event = new QuizEvents.QuestionSent();
+        event.begin();
+        Quiz currentQuiz = quizList.get(currentQuizIndex);
+        currentQuizAnswered.resetAnswers();
+        resetAnswerSummary();
+
+        server.broadcastToRoom(roomId, String.format("\n===== 문제 %d/%d =====",
+                currentQuizIndex + 1, quizList.size()));
+        // QUIZ:<마감시각>,<서버시각>:<문제> - 클라이언트는 마감 시각으로 직접 카운트다운하고 서버 시각으로 시계를 맞춘다
+        long now = System.currentTimeMillis();
+        questionStartedNanos = System.nanoTime();
+        startQuizTimer(now + timeLimitMillis);
+        server.broadcastToRoom(roomId, "QUIZ:" + quizDeadline + "," + now + ":" + currentQuiz.toString());
+        spectators.publish(SpectatorFeed.QUESTION, (currentQuizIndex + 1) + "/" + quizList.size() + "\n" + currentQuiz);
+        spectators.publish(SpectatorFeed.DEADLINE, String.valueOf(quizDeadline));
+        if (event.shouldCommit()) {
+            event.roomId = roomId;
+            event.questionNumber = currentQuizIndex + 1;
+            event.questionCount = quizList.size();
+            event.timeLimit = timeLimitMillis;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return 채점했으면 true, 게임 중이 아니거나 이미 답한 문제라 무시했으면 false
+     */
+    private boolean processAnswer(int playerId, String answer) {
+        if (currentQuizIndex >= quizList.size() || !isGameStarted) return false;
+        int slot = currentQuizAnswered.slotOf(playerId);
+        if (!currentQuizAnswered.markAnswered(slot)) return false;
 
         Quiz currentQuiz = quizList.get(currentQuizIndex);
-        currentQuizAnswered.put(playerName, true);
+        String playerName = currentQuizAnswered.nameOf(slot);
+
+        lastAnswerCorrect = currentQuiz.checkAnswer(answer);
+        if (largeRoom) {
+            processLargeRoomAnswer(playerId, slot, lastAnswerCorrect);
+            if (allPlayersAnswered()) {
+                timeUp();
+            }
+            return true;
+        }
 
-        if (currentQuiz.checkAnswer(answer)) {
+        if (lastAnswerCorrect) {
             int score = currentQuiz.getPoints();
-            playerScores.merge(playerName, score, Integer::sum);
+            playerScores.add(slot, score);
+            spectators.markStandingsStale();
             server.broadcastToRoom(roomId, playerName + "님 정답입니다!");
-            server.broadcastToRoom(roomId, "SCORE:" + playerName + ":" + playerScores.get(playerName));
+            server.broadcastToRoom(roomId, "SCORE:" + playerName + ":" + playerScores.getScore(slot));
 
             if (allPlayersAnswered()) {
-                quizTimer.cancel();
+                cancelQuizTimer();
+                ServerMetrics.QUESTION_DURATION.observeNanos(ServerMetrics.since(questionStartedNanos));
                 currentQuizIndex++;
                 sendNextQuiz();
             }
         } else {
             server.broadcastToRoom(roomId, playerName + "님 오답입니다.");
         }
+        return true;
     }
 
-    private boolean allPlayersAnswered() {
-        return currentQuizAnswered.values().stream().allMatch(answered -> answered);
+    // 대형 방: 결과는 본인에게만 보내고, 방 전체에는 집계만 남긴다
+    private void processLargeRoomAnswer(int playerId, int slot, boolean correct) {
+        String playerName = currentQuizAnswered.nameOf(slot);
+        if (correct) {
+            playerScores.add(slot, quizList.get(currentQuizIndex).getPoints());
+            spectators.markStandingsStale();
+            correctCount++;
+            // 액터가 도착 순서대로 처리하므로 먼저 들어온 정답이 곧 가장 빠른 정답이다
+            if (fastestSize < FASTEST_COUNT) {
+                fastestSlots[fastestSize] = slot;
+                fastestMillis[fastestSize] = System.currentTimeMillis() - questionStartedAt;
+                fastestSize++;
+            }
+            server.sendToPlayer(roomId, playerId, "정답입니다!");
+            server.sendToPlayer(roomId, playerId, "SCORE:" + playerName + ":" + playerScores.getScore(slot));
+        } else {
+            wrongCount++;
+            server.sendToPlayer(roomId, playerId, "오답입니다.");
+        }
+        summaryDirty = true;
     }
 
-    private void startQuizTimer(int seconds) {
-        if (quizTimer != null) {
-            quizTimer.cancel();
-        }
-        remainingTime = seconds;
-        quizTimer = new Timer();
-        quizTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (--remainingTime <= 0) {
-                    timeUp();
-                } else {
-                    server.broadcastToRoom(roomId, "TIME:" + remainingTime);
+    private void resetAnswerSummary() {
+        questionStartedAt = System.currentTimeMillis();
+        correctCount = 0;
+        wrongCount = 0;
+        fastestSize = 0;
+        summaryDirty = false;
+    }
+
+    private void startSummaryTimer() {
+        stopSummaryTimer();
+        summaryTimer = server.getGameScheduler().scheduleAtFixedRate(
+                () -> actor.tell(this::flushAnswerSummary),
+                SUMMARY_INTERVAL_MILLIS, SUMMARY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopSummaryTimer() {
+        if (summaryTimer != null) {
+            summaryTimer.cancel(false);
+            summaryTimer = null;
+        }
+    }
+
+    // 지난 요약 이후 답변이 있었을 때만 한 줄짜리 현황을 보낸다
+    private void flushAnswerSummary() {
+        if (!largeRoom || !isGameStarted || !summaryDirty) {
+            return;
+        }
+        summaryDirty = false;
+        String summary = formatAnswerSummary();
+        server.broadcastToRoom(roomId, "답변 현황: " + summary, SUMMARY_DELIVERY);
+        spectators.publish(SpectatorFeed.STATUS, "답변 현황: " + summary);
+    }
+
+    private String formatAnswerSummary() {
+        int activeCount = 0;
+        for (int slot = 0; slot < currentQuizAnswered.slotCount(); slot++) {
+            if (currentQuizAnswered.isActive(slot)) {
+                activeCount++;
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("정답 ").append(correctCount).append("명, 오답 ").append(wrongCount).append("명, 미응답 ")
+                .append(Math.max(0, activeCount - correctCount - wrongCount)).append("명");
+        if (fastestSize > 0) {
+            sb.append(" / 가장 빠른 정답: ");
+            for (int i = 0; i < fastestSize; i++) {
+                if (i > 0) {
+                    sb.append(", ");
                 }
+                sb.append(currentQuizAnswered.nameOf(fastestSlots[i]))
+                        .append(String.format("(%.1f초)", fastestMillis[i] / 1000.0));
             }
-        }, 0, 1000);
+        }
+        return sb.toString();
+    }
+
+    private boolean allPlayersAnswered() {
+        return currentQuizAnswered.allAnswered();
+    }
+
+    // 문제당 타이머는 마감 시각에 한 번만 울린다. 남은 시간 표시는 클라이언트가 맡는다.
+    private void startQuizTimer(long deadline) {
+        cancelQuizTimer();
+        quizDeadline = deadline;
+        int seq = questionSeq;
+        // 공용 스케줄러는 시간 종료 이벤트를 메일박스에 넣기만 하고, 처리는 방 액터가 한다
+        quizTimer = server.getGameScheduler().schedule(
+                () -> actor.tell(() -> processTimeUp(seq)),
+                Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelQuizTimer() {
+        questionSeq++;  // 이미 메일박스에 들어간 시간 종료 이벤트도 무시되도록
+        if (quizTimer != null) {
+            quizTimer.cancel(false);
+            quizTimer = null;
+        }
+    }
+
+    private void processTimeUp(int seq) {
+        if (seq != questionSeq || !isGameStarted) {
+            return;     // 이미 넘어간 문제의 타이머
+        }
+        long drift = Math.max(0, System.currentTimeMillis() - quizDeadline);
+        ServerMetrics.TIMER_DRIFT.observeMillis(drift);
+        QuizEvents.TimeUp event = new QuizEvents.TimeUp();
+        event.begin();
+        int questionNumber = currentQuizIndex + 1;
+        int answered = currentQuizAnswered.answeredCount();
+        int players = currentQuizAnswered.activeCount();
+        timeUp();
+        if (event.shouldCommit()) {
+            event.roomId = roomId;
+            event.questionNumber = questionNumber;
+            event.answered = answered;
+            event.players = players;
+            event.drift = drift;
+            event.commit();
+        }
     }
 
     private void timeUp() {
-        quizTimer.cancel();
+        cancelQuizTimer();
+        ServerMetrics.QUESTION_DURATION.observeNanos(ServerMetrics.since(questionStartedNanos));
         Quiz currentQuiz = quizList.get(currentQuizIndex);
 
+        if (largeRoom) {
+            // 이름 목록 대신 집계와 상위 순위만 보낸다
+            summaryDirty = false;
+            String standings = formatStandings(3);
+            String summary = formatAnswerSummary();
+            server.broadcastToRoom(roomId, "시간이 종료되었습니다.\n정답: " + currentQuiz.getAnswer()
+                    + "\n" + summary
+                    + (standings.isEmpty() ? "" : "\n현재 순위: " + standings));
+            spectators.publish(SpectatorFeed.STATUS, "정답: " + currentQuiz.getAnswer() + " / " + summary);
+            publishStandings();
+            currentQuizIndex++;
+            sendNextQuiz();
+            return;
+        }
+
         List<String> correctPlayers = new ArrayList<>();
         List<String> incorrectPlayers = new ArrayList<>();
 
-        for (Map.Entry<String, Boolean> entry : currentQuizAnswered.entrySet()) {
-            if (!entry.getValue()) {
-                incorrectPlayers.add(entry.getKey());
-            } else if (playerScores.containsKey(entry.getKey())) {
-                correctPlayers.add(entry.getKey());
+        for (int slot = 0; slot < currentQuizAnswered.slotCount(); slot++) {
+            if (!currentQuizAnswered.isActive(slot)) {
+                continue;
+            }
+            String playerName = currentQuizAnswered.nameOf(slot);
+            if (!currentQuizAnswered.isAnswered(slot)) {
+                incorrectPlayers.add(playerName);
+            } else if (playerScores.getScore(slot) > 0) {
+                correctPlayers.add(playerName);
             }
         }
 
@@ -260,81 +689,252 @@ public class GameManager {
             result.append("\n미응답: ").append(String.join(", ", incorrectPlayers));
         }
 
+        String standings = formatStandings(3);
+        if (!standings.isEmpty()) {
+            result.append("\n현재 순위: ").append(standings);
+        }
+
         server.broadcastToRoom(roomId, result.toString());
+        spectators.publish(SpectatorFeed.STATUS, "정답: " + currentQuiz.getAnswer()
+                + " / 정답자 " + correctPlayers.size() + "명");
+        publishStandings();
         currentQuizIndex++;
         sendNextQuiz();
     }
 
-    public void playerLeft(String playerName) {
-        if (playerScores.containsKey(playerName)) {
-            int finalScore = playerScores.get(playerName);
+    private void processPlayerLeft(int playerId) {
+        int slot = currentQuizAnswered.slotOf(playerId);
+        if (slot >= 0 && playerScores.getScore(slot) > 0 && !largeRoom) {
             server.broadcastToRoom(roomId,
                     String.format("%s님이 게임을 중단하셨습니다. (최종 점수: %d점)",
-                            playerName, finalScore));
+                            currentQuizAnswered.nameOf(slot), playerScores.getScore(slot)));
         }
 
-        currentQuizAnswered.remove(playerName);
+        currentQuizAnswered.deactivate(playerId);
 
         Room room = server.getRoom(roomId);
         if (room != null && room.getPlayers().size() <= 1) {
-            endGame();
+            processEndGame();
         } else if (isGameStarted && allPlayersAnswered()) {
-            quizTimer.cancel();
+            cancelQuizTimer();
             currentQuizIndex++;
             sendNextQuiz();
         }
     }
 
-    public void endGame() {
+    private void processEndGame() {
         isGameStarted = false;
-        if (quizTimer != null) {
-            quizTimer.cancel();
+        cancelQuizTimer();
+        stopSummaryTimer();
+        if (resultsSent) {
+            return;
+        }
+        if (rpsSlots != null) {
+            // 가위바위보 도중 게임이 끝나면 남은 동점자 중 무작위로 승자를 정한다 (클라이언트는 동점을 따로 풀지 않는다)
+            int winnerSlot = rpsSlots[ThreadLocalRandom.current().nextInt(rpsSlots.length)];
+            rpsSlots = null;
+            rpsEvent = null;
+            server.broadcastToRoom(roomId, "가위바위보가 중단되어 무작위로 승자를 정합니다.");
+            processRPSResult(winnerSlot);
+            return;
+        }
+
+        // 순위표가 게임 내내 갱신되어 있으므로 여기서는 맨 위 동점자만 확인한다
+        List<Integer> topSlots = playerScores.topScore() > 0
+                ? playerScores.topTiedSlots() : Collections.emptyList();
+
+        if (topSlots.size() > 1) {
+            server.broadcastToRoom(roomId, "동점자가 발생했습니다! 가위바위보로 승자를 결정합니다.");
+            rpsRound = 0;
+            startRPSRound(topSlots);
+        } else {
+            sendFinalResults(false);
+        }
+    }
+
+    // 가위바위보 한 판을 시작한다. 승부는 서버가 판정하며, 제한 시간이 지나면 선택하지 않은 사람은 진다.
+    private void startRPSRound(List<Integer> slots) {
+        cancelQuizTimer();
+        rpsRound++;
+        rpsSlots = new int[slots.size()];
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < rpsSlots.length; i++) {
+            rpsSlots[i] = slots.get(i);
+            names.add(currentQuizAnswered.nameOf(rpsSlots[i]));
+        }
+        rpsChoices = new RPS[rpsSlots.length];
+        rpsChosenCount = 0;
+        // 판이 여러 이벤트에 걸치므로 켜져 있을 때만 객체를 남겨 두고 판정에서 commit한다
+        QuizEvents.RpsTiebreak event = new QuizEvents.RpsTiebreak();
+        if (event.isEnabled()) {
+            event.begin();
+            rpsEvent = event;
+        } else {
+            rpsEvent = null;
         }
 
-        List<Map.Entry<String, Integer>> sortedScores = new ArrayList<>(playerScores.entrySet());
-        sortedScores.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        server.broadcastToRoom(roomId, "RPS_START:" + String.join(",", names));
+        spectators.publish(SpectatorFeed.STATUS, "동점자 가위바위보 " + rpsRound + "판: " + String.join(", ", names));
+        int seq = questionSeq;
+        quizTimer = server.getGameScheduler().schedule(
+                () -> actor.tell(() -> processRPSDeadline(seq)), RPS_ROUND_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
-        Map<Integer, List<String>> scoreGroups = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : sortedScores) {
-            scoreGroups.computeIfAbsent(entry.getValue(), k -> new ArrayList<>())
-                    .add(entry.getKey());
+    private void processRPSChoice(int playerId, RPS choice) {
+        if (rpsSlots == null || choice == null) {
+            return;
         }
+        int slot = currentQuizAnswered.slotOf(playerId);
+        for (int i = 0; i < rpsSlots.length; i++) {
+            if (rpsSlots[i] == slot && rpsChoices[i] == null) {
+                rpsChoices[i] = choice;
+                if (++rpsChosenCount == rpsSlots.length) {
+                    resolveRPSRound();
+                }
+                return;
+            }
+        }
+    }
 
-        int topScore = sortedScores.isEmpty() ? 0 : sortedScores.get(0).getValue();
-        List<String> topPlayers = scoreGroups.get(topScore);
+    private void processRPSDeadline(int seq) {
+        if (seq != questionSeq || rpsSlots == null) {
+            return;     // 이미 끝난 판의 타이머
+        }
+        resolveRPSRound();
+    }
 
-        if (topPlayers != null && topPlayers.size() > 1) {
-            server.broadcastToRoom(roomId, "동점자가 발생했습니다! 가위바위보로 승자를 결정합니다.");
-            server.broadcastToRoom(roomId, "RPS_START:" + String.join(",", topPlayers));
+    private void resolveRPSRound() {
+        cancelQuizTimer();
+        List<Integer> chosen = new ArrayList<>();
+        for (int i = 0; i < rpsSlots.length; i++) {
+            if (rpsChoices[i] != null) {
+                chosen.add(i);
+            }
+        }
+
+        // 선택한 사람 중 아무에게도 지지 않은 사람이 남는다 (세 가지가 다 나오거나 모두 같으면 무승부)
+        List<Integer> winners = new ArrayList<>();
+        for (int i : chosen) {
+            boolean beaten = false;
+            for (int j : chosen) {
+                if (rpsChoices[j].beats(rpsChoices[i])) {
+                    beaten = true;
+                    break;
+                }
+            }
+            if (!beaten) {
+                winners.add(i);
+            }
+        }
+        if (winners.isEmpty()) {
+            winners.addAll(chosen);
+        }
+        if (winners.isEmpty()) {
+            // 아무도 고르지 않았으면 모두 다시
+            for (int i = 0; i < rpsSlots.length; i++) {
+                winners.add(i);
+            }
+        }
+
+        StringBuilder summary = new StringBuilder("가위바위보 결과: ");
+        for (int i = 0; i < rpsSlots.length; i++) {
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(currentQuizAnswered.nameOf(rpsSlots[i])).append("(")
+                    .append(rpsChoices[i] == null ? "미선택" : rpsChoices[i].getKorean()).append(")");
+        }
+        server.broadcastToRoom(roomId, summary.toString());
+
+        QuizEvents.RpsTiebreak event = rpsEvent;
+        rpsEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.roomId = roomId;
+            event.round = rpsRound;
+            event.players = rpsSlots.length;
+            event.chosen = chosen.size();
+            event.winners = winners.size();
+            event.commit();
+        }
+
+        List<Integer> winnerSlots = new ArrayList<>();
+        for (int i : winners) {
+            winnerSlots.add(rpsSlots[i]);
+        }
+        if (winnerSlots.size() > 1 && rpsRound >= MAX_RPS_ROUNDS) {
+            Collections.shuffle(winnerSlots);
+            winnerSlots = winnerSlots.subList(0, 1);
+            server.broadcastToRoom(roomId, "승부가 나지 않아 무작위로 승자를 정합니다.");
+        }
+
+        if (winnerSlots.size() == 1) {
+            rpsSlots = null;
+            processRPSResult(winnerSlots.get(0));
         } else {
-            sendFinalResults(sortedScores, false);
+            server.broadcastToRoom(roomId, "동점! 다시 한 번!");
+            startRPSRound(winnerSlots);
         }
     }
 
-    private void sendFinalResults(List<Map.Entry<String, Integer>> sortedScores, boolean rpsDecided) {
+    // 점수가 있는 플레이어를 순위 순서대로 보낸다
+    private void sendFinalResults(boolean rpsDecided) {
+        resultsSent = true;
         StringBuilder result = new StringBuilder("GAME_END:");
         if (rpsDecided) {
             result.append("RPS_DECIDED:");
         }
 
-        for (Map.Entry<String, Integer> entry : sortedScores) {
-            result.append(entry.getKey()).append(",")
-                    .append(entry.getValue()).append(";");
+        // 대형 방은 상위 인원만 넣고, 각자의 순위는 따로 알려준다
+        int limit = largeRoom ? LARGE_ROOM_RESULT_COUNT : playerScores.size();
+        for (int slot : playerScores.topK(limit, 1)) {
+            result.append(currentQuizAnswered.nameOf(slot)).append(",")
+                    .append(playerScores.getScore(slot)).append(";");
         }
 
+        if (largeRoom) {
+            Room room = server.getRoom(roomId);
+            if (room != null) {
+                for (int playerId : room.getPlayerIds()) {
+                    int slot = currentQuizAnswered.slotOf(playerId);
+                    if (slot >= 0) {
+                        server.sendToPlayer(roomId, playerId, String.format("최종 순위: %d위 / %d명 (%d점)",
+                                playerScores.rankOf(slot), playerScores.size(), playerScores.getScore(slot)));
+                    }
+                }
+            }
+        }
         server.broadcastToRoom(roomId, result.toString());
+        spectators.publish(SpectatorFeed.DEADLINE, "");
+        spectators.publish(SpectatorFeed.STATUS, "게임이 종료되었습니다.");
+        spectators.publish(SpectatorFeed.RESULT, formatStandings(LARGE_ROOM_RESULT_COUNT));
     }
 
-    public void handleRPSResult(String winner, List<String> players) {
-        for (String player : players) {
-            if (player.equals(winner)) {
-                playerScores.put(player, playerScores.get(player) + 1);
-            }
+    // 승자 슬롯에만 1점을 더한다 (같은 이름의 다른 플레이어는 건드리지 않는다)
+    private void processRPSResult(int winnerSlot) {
+        if (resultsSent) {
+            return;
         }
+        playerScores.add(winnerSlot, 1);
+        sendFinalResults(true);
+    }
+
+    // 관전 피드의 순위 갱신 (관전자가 있을 때 피드 tick마다 최대 한 번)
+    private void publishStandings() {
+        spectators.publish(SpectatorFeed.STANDINGS, formatStandings(LARGE_ROOM_RESULT_COUNT));
+    }
 
-        List<Map.Entry<String, Integer>> sortedScores = new ArrayList<>(playerScores.entrySet());
-        sortedScores.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
-        sendFinalResults(sortedScores, true);
+    // 상위 k명 "1위 이름(점수점)" 목록, 점수가 있는 플레이어만
+    private String formatStandings(int k) {
+        StringBuilder sb = new StringBuilder();
+        for (int slot : playerScores.topK(k, 1)) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(playerScores.rankOf(slot)).append("위 ")
+                    .append(currentQuizAnswered.nameOf(slot))
+                    .append("(").append(playerScores.getScore(slot)).append("점)");
+        }
+        return sb.toString();
     }
 
     public boolean isGameInProgress() {
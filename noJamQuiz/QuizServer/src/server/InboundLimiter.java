@@ -0,0 +1,69 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 세션 하나가 보내는 메시지의 속도 제한
+// ClientHandler의 읽기 스레드에서 방 조회나 파싱 전에 메시지 종류(Opcode)만 보고 판단하므로 거절 비용이 거의 없다.
+// 채팅은 방 전체로 퍼지므로(N배) 가장 빡빡하게, 답변은 게임 진행에 지장이 없을 만큼 넉넉하게 둔다.
+// 거절이 계속 쌓이면(위반 버킷이 바닥나면) 연결을 끊는다.
+public class InboundLimiter {
+    public enum Verdict { ACCEPT, REJECT, DISCONNECT }
+
+    static final int MAX_MESSAGE_LENGTH = 1000;
+    static final int MAX_CHAT_LENGTH = 300;
+
+    // 모든 세션 누적
+    private static final AtomicLong rejectedTotal = new AtomicLong();
+    private static final AtomicLong disconnectedTotal = new AtomicLong();
+
+    private final TokenBucket overall = new TokenBucket(20, 40);   // 종류와 상관없이 전체
+    private final TokenBucket chat = new TokenBucket(2, 5);
+    private final TokenBucket game = new TokenBucket(5, 10);      // ANSWER, MODE_CHOICE, RPS_CHOICE
+    private final TokenBucket control = new TokenBucket(2, 8);    // 방 생성/입장/퇴장, 게임 시작, 관전, 핸드셰이크
+    private final TokenBucket violations = new TokenBucket(2, 30);
+    private long lastNoticeAt;
+
+    public Verdict check(Opcode opcode, String message) {
+        if (accept(opcode, message)) {
+            return Verdict.ACCEPT;
+        }
+        rejectedTotal.incrementAndGet();
+        if (!violations.tryAcquire()) {
+            disconnectedTotal.incrementAndGet();
+            return Verdict.DISCONNECT;
+        }
+        return Verdict.REJECT;
+    }
+
+    private boolean accept(Opcode opcode, String message) {
+        if (message.length() > MAX_MESSAGE_LENGTH || !overall.tryAcquire()) {
+            return false;
+        }
+        switch (opcode.getCategory()) {
+            case GAME:
+                return game.tryAcquire();
+            case CONTROL:
+                return control.tryAcquire();
+            default:
+                return message.length() <= MAX_CHAT_LENGTH && chat.tryAcquire();
+        }
+    }
+
+    // 거절 안내는 1초에 한 번만
+    public boolean shouldNotify() {
+        long now = System.currentTimeMillis();
+        if (now - lastNoticeAt < 1000) {
+            return false;
+        }
+        lastNoticeAt = now;
+        return true;
+    }
+
+    public static long getRejectedTotal() {
+        return rejectedTotal.get();
+    }
+
+    public static long getDisconnectedTotal() {
+        return disconnectedTotal.get();
+    }
+}
@@ -0,0 +1,131 @@
+package server;
+
+import java.util.Arrays;
+
+// int → int 해시맵 (오픈 어드레싱, 선형 탐사)
+// 세션 id처럼 int 키로 자주 조회하는 곳에서 Integer 박싱과 엔트리 객체 없이 쓰기 위한 용도
+// 키로 Integer.MIN_VALUE는 쓸 수 없다. 스레드 안전하지 않으므로 호출하는 쪽에서 동기화한다.
+public class IntIntMap {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private final int missingValue;
+
+    public IntIntMap(int missingValue) {
+        this(16, missingValue);
+    }
+
+    public IntIntMap(int expectedSize, int missingValue) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.missingValue = missingValue;
+        Arrays.fill(keys, FREE);
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // 없으면 생성 시 지정한 missingValue
+    public int get(int key) {
+        int index = hash(key) & mask;
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        int index = hash(key) & mask;
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("사용할 수 없는 키입니다: " + key);
+        }
+        int index = hash(key) & mask;
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    // 삭제한 값을 돌려준다. 없으면 missingValue
+    public int remove(int key) {
+        int index = hash(key) & mask;
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                int removed = values[index];
+                shiftBack(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    // 삭제한 자리 뒤의 항목들을 당겨 탐사 체인이 끊기지 않게 한다
+    private void shiftBack(int gap) {
+        int index = (gap + 1) & mask;
+        while (keys[index] != FREE) {
+            int home = hash(keys[index]) & mask;
+            // home이 (gap, index] 구간 밖이면 gap으로 옮길 수 있다
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[gap] = FREE;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package server;
+
+import java.util.*;
+
+// 게임 중 점수가 바뀔 때마다 갱신되는 실시간 순위표
+// 슬롯(AnswerTracker와 같은 번호)별 점수를 (점수 내림차순, 슬롯 오름차순)으로 정렬된 트리에 두고,
+// 점수별 인원수는 펜윅 트리에 두어 점수 변경 O(log n), 순위 조회 O(log maxScore),
+// 상위 K명 O(K log n)으로 처리한다. 게임 종료 시 따로 정렬할 필요가 없다.
+public class Leaderboard {
+    private final int[] scores;
+    private final TreeSet<Long> ranking = new TreeSet<>();
+    private int[] fenwick;          // fenwick[i]: 점수 구간별 인원수 (1부터 시작하는 인덱스 = 점수 + 1)
+
+    public Leaderboard(int slotCount, int expectedMaxScore) {
+        this.scores = new int[slotCount];
+        this.fenwick = new int[Math.max(16, expectedMaxScore + 2)];
+        for (int slot = 0; slot < slotCount; slot++) {
+            ranking.add(key(0, slot));
+            fenwickAdd(0, 1);
+        }
+    }
+
+    // 점수가 높을수록, 같으면 슬롯 번호가 작을수록 앞에 오도록 하나의 long 키로 만든다
+    private static long key(int score, int slot) {
+        return ((long) (Integer.MAX_VALUE - score) << 32) | slot;
+    }
+
+    private static int slotOf(long key) {
+        return (int) key;
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    public int getScore(int slot) {
+        return scores[slot];
+    }
+
+    public void add(int slot, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int oldScore = scores[slot];
+        int newScore = Math.max(0, oldScore + delta);
+        if (newScore + 1 >= fenwick.length) {
+            growFenwick(newScore + 2);
+        }
+        ranking.remove(key(oldScore, slot));
+        fenwickAdd(oldScore, -1);
+        scores[slot] = newScore;
+        ranking.add(key(newScore, slot));
+        fenwickAdd(newScore, 1);
+    }
+
+    // 공동 순위 방식 (나보다 점수가 높은 사람 수 + 1)
+    public int rankOf(int slot) {
+        return countAbove(scores[slot]) + 1;
+    }
+
+    public int topScore() {
+        return ranking.isEmpty() ? 0 : Integer.MAX_VALUE - (int) (ranking.first() >>> 32);
+    }
+
+    // 최고 점수를 가진 슬롯들 (동점자 확인용)
+    public List<Integer> topTiedSlots() {
+        List<Integer> result = new ArrayList<>();
+        int top = topScore();
+        for (long key : ranking) {
+            int slot = slotOf(key);
+            if (scores[slot] != top) {
+                break;
+            }
+            result.add(slot);
+        }
+        return result;
+    }
+
+    // 순위 순서대로 최대 k명의 슬롯. minScore 미만은 제외한다.
+    public int[] topK(int k, int minScore) {
+        int[] buffer = new int[Math.min(k, scores.length)];
+        int count = 0;
+        for (long key : ranking) {
+            if (count == buffer.length) {
+                break;
+            }
+            int slot = slotOf(key);
+            if (scores[slot] < minScore) {
+                break;
+            }
+            buffer[count++] = slot;
+        }
+        return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+    }
+
+    private int countAbove(int score) {
+        return scores.length - fenwickPrefix(score);
+    }
+
+    private void fenwickAdd(int score, int delta) {
+        for (int i = score + 1; i < fenwick.length; i += i & -i) {
+            fenwick[i] += delta;
+        }
+    }
+
+    // 점수가 score 이하인 인원수
+    private int fenwickPrefix(int score) {
+        int sum = 0;
+        for (int i = Math.min(score + 1, fenwick.length - 1); i > 0; i -= i & -i) {
+            sum += fenwick[i];
+        }
+        return sum;
+    }
+
+    private void growFenwick(int minLength) {
+        int length = fenwick.length;
+        while (length < minLength) {
+            length *= 2;
+        }
+        fenwick = new int[length];
+        for (int score : scores) {
+            for (int i = score + 1; i < fenwick.length; i += i & -i) {
+                fenwick[i]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// 한 JVM 안에서 여러 노드를 돌릴 때(테스트, 시뮬레이션) 쓰는 전송 구현
+// 노드마다 RoomActor 메일박스를 하나 두어 받는 순서를 보장하고, 처리는 넘겨받은 실행기에서 한다.
+public class LocalNodeTransport implements NodeTransport {
+    private final Executor executor;
+    private final Consumer<String> log;
+    private final Map<Integer, Receiver> receivers = new ConcurrentHashMap<>();
+    private final Map<Integer, RoomActor> inboxes = new ConcurrentHashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+
+    public LocalNodeTransport(Executor executor, Consumer<String> log) {
+        this.executor = executor;
+        this.log = log;
+    }
+
+    @Override
+    public void register(int nodeId, Receiver receiver) {
+        receivers.put(nodeId, receiver);
+        inboxes.put(nodeId, new RoomActor("노드 " + nodeId, executor, log));
+    }
+
+    @Override
+    public void send(int fromNode, int toNode, int sessionId, String playerName, String message) {
+        RoomActor inbox = inboxes.get(toNode);
+        Receiver receiver = receivers.get(toNode);
+        if (inbox == null || receiver == null) {
+            log.accept("등록되지 않은 노드로 보낸 메시지를 버립니다: 노드 " + toNode);
+            return;
+        }
+        inbox.tell(() -> {
+            delivered.incrementAndGet();
+            receiver.onNodeMessage(fromNode, sessionId, playerName, message);
+        });
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+}
@@ -0,0 +1,87 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 게임 이벤트 하나를 처리하는 동안 나가는 메시지를 받는 사람별로 모아 두었다가 한 번에 보낸다
+// 예: 정답 처리 시 결과 문장 + SCORE, 시간 종료 시 정답 공개 + 다음 문제 + 타이머 등이 각자 한 프레임(BATCH:)이 된다.
+// RoomActor가 이벤트마다 begin/flush를 부르며, 같은 스레드에서 부른 ClientHandler.send()만 모인다.
+//
+// 형식: BATCH:<개수>\n<길이>:<메시지><길이>:<메시지>...  (길이는 문자 수, 메시지 안의 문자는 그대로)
+// 한 사람에게 한 개뿐이면 봉투 없이 그대로 보낸다.
+public final class MessageBatch {
+    static final String PREFIX = "BATCH:";
+
+    private static final ThreadLocal<MessageBatch> current = new ThreadLocal<>();
+
+    private final Map<ClientHandler, Pending> pending = new IdentityHashMap<>();
+    private int depth;
+
+    private static class Pending {
+        final List<String> messages = new ArrayList<>(4);
+        Delivery first;         // 하나뿐일 때는 원래 전달 방식(덮어쓰기 키 포함)을 그대로 쓴다
+        boolean critical;
+    }
+
+    private MessageBatch() {
+    }
+
+    public static void begin() {
+        MessageBatch batch = current.get();
+        if (batch == null) {
+            batch = new MessageBatch();
+            current.set(batch);
+        }
+        batch.depth++;
+    }
+
+    // 바깥쪽 begin에 맞는 flush에서만 실제로 보낸다
+    public static void flush() {
+        MessageBatch batch = current.get();
+        if (batch == null || --batch.depth > 0) {
+            return;
+        }
+        if (batch.pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<ClientHandler, Pending>> entries = new ArrayList<>(batch.pending.entrySet());
+        batch.pending.clear();
+        for (Map.Entry<ClientHandler, Pending> entry : entries) {
+            Pending p = entry.getValue();
+            Delivery delivery = p.messages.size() == 1 ? p.first : p.critical ? Delivery.CRITICAL : Delivery.DROPPABLE;
+            entry.getKey().deliverBatch(p.messages, delivery);
+        }
+    }
+
+    /**
+     * 지금 스레드에서 모으는 중이면 메시지를 넣고 true를 돌려준다.
+     */
+    static boolean add(ClientHandler recipient, String message, Delivery delivery) {
+        MessageBatch batch = current.get();
+        if (batch == null || batch.depth == 0) {
+            return false;
+        }
+        Pending p = batch.pending.computeIfAbsent(recipient, k -> new Pending());
+        if (p.messages.isEmpty()) {
+            p.first = delivery;
+        }
+        p.messages.add(message);
+        p.critical |= !delivery.isDroppable();
+        return true;
+    }
+
+    static String encode(List<String> messages) {
+        int length = 16;
+        for (String message : messages) {
+            length += message.length() + 6;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(PREFIX).append(messages.size()).append('\n');
+        for (String message : messages) {
+            sb.append(message.length()).append(':').append(message);
+        }
+        return sb.toString();
+    }
+}
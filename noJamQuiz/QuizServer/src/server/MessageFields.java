@@ -0,0 +1,49 @@
+package server;
+
+// 구분자로 나뉜 인자를 앞에서부터 하나씩 읽는다 (split처럼 배열이나 정규식을 쓰지 않음)
+// 숫자는 부분 문자열을 만들지 않고 원래 메시지에서 바로 읽는다.
+public class MessageFields {
+    private final String message;
+    private final char separator;
+    private int pos;
+
+    public MessageFields(String message, int start, char separator) {
+        this.message = message;
+        this.separator = separator;
+        this.pos = start;
+    }
+
+    private int fieldEnd() {
+        if (pos > message.length()) {
+            throw new IllegalArgumentException("인자가 부족합니다: " + message);
+        }
+        int end = message.indexOf(separator, pos);
+        return end < 0 ? message.length() : end;
+    }
+
+    public String nextString() {
+        int end = fieldEnd();
+        String value = message.substring(pos, end);
+        pos = end + 1;
+        return value;
+    }
+
+    public int nextInt() {
+        int end = fieldEnd();
+        int value = Integer.parseInt(message, pos, end, 10);
+        pos = end + 1;
+        return value;
+    }
+
+    public long nextLong() {
+        int end = fieldEnd();
+        long value = Long.parseLong(message, pos, end, 10);
+        pos = end + 1;
+        return value;
+    }
+
+    // 메시지 끝까지의 정수 (JOIN_ROOM:<id> 처럼 인자가 하나인 경우)
+    public static int intArg(String message, int start) {
+        return Integer.parseInt(message, start, message.length(), 10);
+    }
+}
@@ -0,0 +1,85 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// GET /metrics 로 MetricsRegistry를 Prometheus 텍스트 형식으로 내보내는 작은 HTTP 서버
+// addPage로 진단용 텍스트 페이지(답변 추적 등)를 같은 포트에 더 걸 수 있다.
+// 기본은 127.0.0.1에만 연다. 다른 장비의 Prometheus가 긁어 가야 하면 -Dserver.metricsHost=0.0.0.0 으로 띄운다.
+public class MetricsEndpoint {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PAGE_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final Map<String, Supplier<String>> pages = new LinkedHashMap<>();
+    private HttpServer http;
+    private ExecutorService executor;   // 요청 처리 스레드 (stop에서 함께 정리)
+
+    public MetricsEndpoint(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    // start 전에 부른다
+    public void addPage(String path, Supplier<String> page) {
+        pages.put(path, page);
+    }
+
+    public void start(int port) throws IOException {
+        String host = System.getProperty("server.metricsHost");
+        InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+        http = HttpServer.create(new InetSocketAddress(address, port), 0);
+        http.createContext("/metrics", exchange -> respond(exchange, CONTENT_TYPE, registry::scrape));
+        for (Map.Entry<String, Supplier<String>> page : pages.entrySet()) {
+            http.createContext(page.getKey(), exchange -> respond(exchange, PAGE_CONTENT_TYPE, page.getValue()));
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        http.setExecutor(executor);
+        http.start();
+    }
+
+    public void stop() {
+        if (http != null) {
+            http.stop(0);
+            http = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public int getPort() {
+        return http == null ? -1 : http.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, Supplier<String> page) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = page.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+// 서버 지표 모음. 카운터/게이지/히스토그램을 이름과 라벨로 등록해 두고 Prometheus 텍스트 형식으로 내보낸다.
+// 등록은 시작할 때 한 번(동기화), 값 기록은 LongAdder만 건드리므로 락 없이 여러 스레드에서 동시에 해도 된다.
+// 내보내는 쪽(MetricsEndpoint)은 값을 읽기만 하며, 읽는 도중 기록된 값은 다음 수집에 반영된다.
+public class MetricsRegistry {
+    public static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // 지연 시간 히스토그램의 기본 구간 (초)
+    static final double[] LATENCY_BUCKETS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05,
+            0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    private static class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new LinkedHashMap<>();  // 라벨 문자열 → Counter / Histogram / LongSupplier / DoubleSupplier
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    // 구간별 LongAdder 배열. observe는 구간 찾기(최대 17번 비교)와 덧셈 두 번이 전부다.
+    public static final class Histogram {
+        private final double[] bounds;
+        private final long[] boundNanos;
+        private final LongAdder[] buckets;      // 마지막 칸은 +Inf
+        private final LongAdder sumNanos = new LongAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.boundNanos = new long[bounds.length];
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < bounds.length; i++) {
+                boundNanos[i] = (long) (bounds[i] * 1_000_000_000L);
+            }
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observeNanos(long nanos) {
+            int i = 0;
+            while (i < boundNanos.length && nanos > boundNanos[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        public void observeMillis(long millis) {
+            observeNanos(millis * 1_000_000L);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return register(name, help, "counter", labels, new Counter());
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return register(name, help, "histogram", labels, new Histogram(LATENCY_BUCKETS));
+    }
+
+    // 값을 따로 들고 있지 않고 내보낼 때 읽어 온다 (방 수, 누적 카운터를 가진 기존 클래스 등)
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        register(name, help, "gauge", labels, value);
+    }
+
+    // 비율처럼 소수인 값
+    public void doubleGauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, "gauge", labels, value);
+    }
+
+    public void counterFunction(String name, String help, LongSupplier value, String... labels) {
+        register(name, help, "counter", labels, value);
+    }
+
+    // 서버를 멈출 때 그 서버 인스턴스를 붙잡고 있는 함수형 지표를 뗀다
+    public synchronized void unregister(String name, String... labels) {
+        Family family = families.get(name);
+        if (family != null) {
+            family.series.remove(formatLabels(labels));
+        }
+    }
+
+    /**
+     * 같은 이름과 라벨로 다시 등록하면 새 값으로 바꾼다 (서버를 다시 시작한 경우).
+     * @param labels 라벨 이름과 값을 번갈아 넣는다. 예: "type", "ANSWER"
+     */
+    private synchronized <T> T register(String name, String help, String type, String[] labels, T metric) {
+        Family family = families.computeIfAbsent(name, k -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("지표 종류가 다릅니다: " + name + " (" + family.type + ")");
+        }
+        family.series.put(formatLabels(labels), metric);
+        return metric;
+    }
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("라벨은 이름과 값의 쌍이어야 합니다.");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            sb.append(i == 0 ? "" : ",").append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return sb.toString();
+    }
+
+    // Prometheus 텍스트 형식 (version 0.0.4)
+    public String scrape() {
+        List<Map.Entry<String, Family>> snapshot;
+        Map<String, List<Map.Entry<String, Object>>> series = new LinkedHashMap<>();
+        synchronized (this) {
+            snapshot = new ArrayList<>(families.entrySet());
+            for (Map.Entry<String, Family> entry : snapshot) {
+                series.put(entry.getKey(), new ArrayList<>(entry.getValue().series.entrySet()));
+            }
+        }
+
+        StringBuilder out = new StringBuilder(8192);
+        for (Map.Entry<String, Family> entry : snapshot) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            List<Map.Entry<String, Object>> members = series.get(name);
+            if (members.isEmpty()) {
+                continue;
+            }
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> member : members) {
+                String labels = member.getKey();
+                Object metric = member.getValue();
+                if (metric instanceof Histogram) {
+                    writeHistogram(out, name, labels, (Histogram) metric);
+                } else if (metric instanceof DoubleSupplier) {
+                    writeSample(out, name, labels, Double.toString(((DoubleSupplier) metric).getAsDouble()));
+                } else {
+                    long value = metric instanceof Counter ? ((Counter) metric).get()
+                            : ((LongSupplier) metric).getAsLong();
+                    writeSample(out, name, labels, Long.toString(value));
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            cumulative += histogram.buckets[i].sum();
+            String le = i < histogram.bounds.length ? Double.toString(histogram.bounds[i]) : "+Inf";
+            writeSample(out, name + "_bucket", prefix + "le=\"" + le + "\"", Long.toString(cumulative));
+        }
+        writeSample(out, name + "_sum", labels, Double.toString(histogram.sumNanos.sum() / 1e9));
+        writeSample(out, name + "_count", labels, Long.toString(cumulative));
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,23 @@
+package server;
+
+// 서버 노드 사이의 메시지 전달 방식
+// 방은 방 id로 노드에 나뉘어 있고(RoomRouter), 로비 노드는 플레이어의 방 관련 메시지를 담당 노드로 넘긴다.
+// 담당 노드의 응답은 같은 방식으로 플레이어가 접속한 노드로 돌아온다.
+// 같은 노드로 보낸 메시지는 보낸 순서대로 도착해야 한다.
+public interface NodeTransport {
+
+    interface Receiver {
+        /**
+         * 다른 노드에서 온 메시지를 처리한다.
+         * @param fromNode 보낸 노드
+         * @param sessionId 메시지와 관련된 플레이어 세션 id (노드 간 제어 메시지는 -1)
+         * @param playerName 플레이어 이름 (제어 메시지는 null)
+         * @param message 클라이언트 프로토콜 그대로의 메시지
+         */
+        void onNodeMessage(int fromNode, int sessionId, String playerName, String message);
+    }
+
+    void register(int nodeId, Receiver receiver);
+
+    void send(int fromNode, int toNode, int sessionId, String playerName, String message);
+}
@@ -0,0 +1,81 @@
+package server;
+
+import java.util.Arrays;
+
+// 클라이언트가 보내는 메시지 종류
+// 첫 글자로 후보(많아야 서너 개)를 표에서 바로 찾고 원래 메시지에서 토큰을 비교하므로, 종류 판별에 문자열이나 배열을 만들지 않는다.
+// 토큰에 해당하지 않는 메시지는 모두 CHAT(방 채팅)이다. 인자는 argStart()부터 시작한다.
+public enum Opcode {
+    ID("ID:", Category.CONTROL),
+    RESUME("RESUME:", Category.CONTROL),
+    QUIT("QUIT", Category.CONTROL),
+    CREATE_ROOM("CREATE_ROOM:", Category.CONTROL),
+    JOIN_ROOM("JOIN_ROOM:", Category.CONTROL),
+    LEAVE_ROOM("LEAVE_ROOM:", Category.CONTROL),
+    SPECTATE("SPECTATE:", Category.CONTROL),
+    LEAVE_SPECTATE("LEAVE_SPECTATE", Category.CONTROL),
+    START_GAME("START_GAME:", Category.CONTROL),
+    MODE_CHOICE("MODE_CHOICE:", Category.GAME),
+    ANSWER("ANSWER:", Category.GAME),
+    RPS_CHOICE("RPS_CHOICE:", Category.GAME),
+    RPS_WINNER("RPS_WINNER:", Category.GAME),
+    CHAT(null, Category.CHAT);
+
+    // 속도 제한(InboundLimiter) 분류
+    public enum Category { CONTROL, GAME, CHAT }
+
+    // 첫 글자 → 그 글자로 시작하는 종류들 (많아야 서너 개)
+    private static final Opcode[][] BY_FIRST_CHAR = new Opcode[128][];
+
+    static {
+        for (Opcode type : values()) {
+            if (type.token != null) {
+                char first = type.token.charAt(0);
+                Opcode[] list = BY_FIRST_CHAR[first];
+                list = list == null ? new Opcode[1] : Arrays.copyOf(list, list.length + 1);
+                list[list.length - 1] = type;
+                BY_FIRST_CHAR[first] = list;
+            }
+        }
+    }
+
+    private final String token;
+    private final Category category;
+
+    Opcode(String token, Category category) {
+        this.token = token;
+        this.category = category;
+    }
+
+    public static Opcode of(String message) {
+        if (message.isEmpty() || message.charAt(0) >= BY_FIRST_CHAR.length) {
+            return CHAT;
+        }
+        Opcode[] candidates = BY_FIRST_CHAR[message.charAt(0)];
+        if (candidates != null) {
+            for (Opcode opcode : candidates) {
+                if (opcode.matches(message, 0)) {
+                    return opcode;
+                }
+            }
+        }
+        return CHAT;
+    }
+
+    // ':'로 끝나는 토큰은 접두어로, 나머지는 메시지 전체로 비교한다
+    private boolean matches(String message, int start) {
+        if (!message.startsWith(token, start)) {
+            return false;
+        }
+        return token.charAt(token.length() - 1) == ':' || message.length() == start + token.length();
+    }
+
+    // 인자가 시작하는 위치 (CHAT은 메시지 전체)
+    public int argStart() {
+        return token == null ? 0 : token.length();
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+}
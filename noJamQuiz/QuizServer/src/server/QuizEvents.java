@@ -0,0 +1,200 @@
+package server;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// 게임 흐름을 JFR(Java Flight Recorder) 기록에 남기는 이벤트
+// GC 일시 정지나 락 경합 같은 JDK 이벤트와 같은 타임라인에 찍히므로, 어느 방의 어느 단계가 멈췄는지 맞춰 볼 수 있다.
+// 예: java -XX:StartFlightRecording=filename=quiz.jfr,settings=profile server.QuizServer --headless
+//     jfr print --events "quiz.*" quiz.jfr
+//
+// 기록하는 쪽은 모두 아래 모양을 따른다. 이벤트가 꺼져 있으면 begin/shouldCommit은 아무 일도 하지 않고
+// 객체도 JIT가 없애므로 비용이 없다. 필드 값은 shouldCommit()이 true일 때만 채운다.
+//     QuizEvents.RoomCreated event = new QuizEvents.RoomCreated();
+//     event.begin();
+//     ... 작업 ...
+//     if (event.shouldCommit()) { event.roomId = ...; event.commit(); }
+// 여러 액터 이벤트에 걸치는 RpsTiebreak만 판 시작에 begin한 객체를 필드에 두며, 켜져 있을 때(isEnabled)만 남긴다.
+// 스택 트레이스는 남기지 않아 켜져 있을 때의 비용도 줄인다.
+public final class QuizEvents {
+    private QuizEvents() {
+    }
+
+    @Name("quiz.RoomCreated")
+    @Label("Room Created")
+    @Category({"Quiz Server", "Room"})
+    @Description("방 생성 (등록부 락 대기 포함)")
+    @StackTrace(false)
+    public static class RoomCreated extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Room Name")
+        String roomName;
+        @Label("Category")
+        String category;
+        @Label("Max Players")
+        int maxPlayers;
+        @Label("Question Count")
+        int questionCount;
+    }
+
+    @Name("quiz.RoomRemoved")
+    @Label("Room Removed")
+    @Category({"Quiz Server", "Room"})
+    @Description("마지막 플레이어나 방장이 나가 방을 삭제함")
+    @StackTrace(false)
+    public static class RoomRemoved extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Room Name")
+        String roomName;
+        @Label("Host Left")
+        boolean hostLeft;
+        @Label("Game In Progress")
+        boolean gameInProgress;
+    }
+
+    @Name("quiz.GameStarted")
+    @Label("Game Started")
+    @Category({"Quiz Server", "Game"})
+    @Description("게임 시작 (초기 점수 방송과 첫 문제 전송 포함)")
+    @StackTrace(false)
+    public static class GameStarted extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Players")
+        int players;
+        @Label("Questions")
+        int questions;
+        @Label("Large Room")
+        boolean largeRoom;
+        @Label("GPT Mode")
+        boolean gpt;
+    }
+
+    @Name("quiz.QuestionSent")
+    @Label("Question Sent")
+    @Category({"Quiz Server", "Game"})
+    @Description("문제 하나를 방에 보냄")
+    @StackTrace(false)
+    public static class QuestionSent extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Question Number")
+        int questionNumber;
+        @Label("Question Count")
+        int questionCount;
+        @Label("Time Limit")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeLimit;
+    }
+
+    @Name("quiz.AnswerReceived")
+    @Label("Answer Received")
+    @Category({"Quiz Server", "Game"})
+    @Description("읽기 스레드가 ANSWER를 방 액터의 메일박스에 넣음")
+    @StackTrace(false)
+    public static class AnswerReceived extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Session Id")
+        int sessionId;
+    }
+
+    @Name("quiz.AnswerChecked")
+    @Label("Answer Checked")
+    @Category({"Quiz Server", "Game"})
+    @Description("방 액터에서 답변을 채점하고 결과 메시지를 만듦")
+    @StackTrace(false)
+    public static class AnswerChecked extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Session Id")
+        int sessionId;
+        @Label("Graded")
+        @Description("false면 게임 중이 아니거나 이미 답한 문제라 무시함")
+        boolean graded;
+        @Label("Correct")
+        boolean correct;
+        @Label("Mailbox Wait")
+        @Timespan(Timespan.NANOSECONDS)
+        long mailboxWait;
+    }
+
+    @Name("quiz.TimeUp")
+    @Label("Question Time Up")
+    @Category({"Quiz Server", "Game"})
+    @Description("문제 타이머 만료 처리 (정답 공개와 다음 문제 전송 포함)")
+    @StackTrace(false)
+    public static class TimeUp extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Question Number")
+        int questionNumber;
+        @Label("Answered")
+        int answered;
+        @Label("Players")
+        int players;
+        @Label("Timer Drift")
+        @Description("마감 시각보다 늦게 처리된 정도")
+        @Timespan(Timespan.MILLISECONDS)
+        long drift;
+    }
+
+    @Name("quiz.RpsTiebreak")
+    @Label("RPS Tiebreak Round")
+    @Category({"Quiz Server", "Game"})
+    @Description("동점자 가위바위보 한 판 (판 시작부터 판정까지)")
+    @StackTrace(false)
+    public static class RpsTiebreak extends Event {
+        @Label("Room Id")
+        int roomId;
+        @Label("Round")
+        int round;
+        @Label("Players")
+        int players;
+        @Label("Chosen")
+        int chosen;
+        @Label("Winners")
+        int winners;
+    }
+
+    @Name("quiz.GptRequest")
+    @Label("GPT Quiz Request")
+    @Category({"Quiz Server", "GPT"})
+    @Description("GPT 퀴즈 생성 요청 한 번")
+    @StackTrace(false)
+    public static class GptRequest extends Event {
+        @Label("Category")
+        String category;
+        @Label("Outcome")
+        @Description("ok, failed, circuit_open")
+        String outcome;
+        @Label("Timeout")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeout;
+    }
+
+    @Name("quiz.BroadcastFanout")
+    @Label("Broadcast Fan-out")
+    @Category({"Quiz Server", "Network"})
+    @Description("메시지 하나를 여러 세션의 송신 버퍼(또는 이벤트 묶음)에 넣음")
+    @StackTrace(false)
+    public static class BroadcastFanout extends Event {
+        @Label("Room Id")
+        @Description("로비 전체 방송이면 -1")
+        int roomId;
+        @Label("Recipients")
+        int recipients;
+        @Label("Message Length")
+        @Description("문자 수")
+        int messageLength;
+        @Label("Droppable")
+        boolean droppable;
+    }
+}
@@ -1,81 +1,166 @@
 package server;
 
+import model.QuizCacheDAO;
+import model.RPS;
 import model.Room;
-import java.awt.*;
+import model.RoomCheckpointDAO;
 import java.io.*;
 import java.net.*;
+import java.security.SecureRandom;
 import java.util.*;
-import javax.swing.*;
-import javax.swing.border.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class QuizServer extends JFrame {
+// 게임 서버 본체. 화면이 없으므로 헤드리스 장비에서도 돌아가며, 관리 창(ServerConsole)은 필요할 때만 붙인다.
+public class QuizServer {
     private int port;
     private ServerSocket serverSocket;
     private Thread acceptThread;
     private Vector<ClientHandler> users;
+    // 플레이어는 ID: 핸드셰이크 때 발급한 세션 id로 식별한다 (이름은 표시용)
+    private Map<Integer, ClientHandler> sessions;
+    private IntIntMap playerRooms;          // 세션 id → 참가 중인 방 id (this로 동기화)
+    private AtomicInteger sessionIdCounter;
     private Map<Integer, Room> rooms;
     private Map<Integer, GameManager> gameManagers;
     private int roomIdCounter;
-
-    private JTextArea t_display;
-    private JButton b_connect;
-    private JButton b_disconnect;
-    private JButton b_exit;
+    private QuizCacheDAO quizCache;
+    private GPTCircuitBreaker gptCircuitBreaker;
+    // 모든 방이 공유하는 게임 스레드: 방 액터 실행용 풀과 타이머용 스케줄러
+    private ExecutorService gameExecutor;
+    private ScheduledExecutorService gameScheduler;
+    // 게임 시작 때 문제를 준비하는 스레드 (파일 읽기, GPT 호출처럼 오래 막히는 작업을 액터 풀 밖에서 한다)
+    private ExecutorService quizLoader;
+    // 관전자: 방마다 피드 하나, 전송은 게임 스레드와 분리된 관전 전용 스레드에서 한다
+    private Map<Integer, SpectatorFeed> spectatorFeeds;
+    private IntIntMap spectatorRooms;       // 세션 id → 관전 중인 방 id (this로 동기화)
+    private ScheduledExecutorService spectatorScheduler;
+    private static final long SPECTATOR_TICK_MILLIS = 500;
+    // 여러 노드로 방을 나눠 맡을 때: 방 id → 담당 노드, 노드 사이 메시지 전달
+    private RoomRouter router;
+    private NodeTransport transport;
+    private IntIntMap forwardedRooms;       // 로컬 세션 id → 다른 노드에 있는 방 id (this로 동기화)
+    private Map<Integer, String> remoteRoomLists;   // 노드별 방 목록 조각
+    // 재접속: ID: 때 발급한 토큰으로 끊긴 세션을 grace 기간 동안 보관한다
+    private Map<String, Integer> resumeTokens;
+    private SecureRandom tokenRandom;
+    private static final long SESSION_GRACE_MILLIS = 30000;
+    // 재시작 대비 체크포인트: 복원한 세션은 재접속(RESUME)할 때까지 이름만 보관한다
+    private RoomCheckpointDAO checkpointDAO;
+    private RoomCheckpointer checkpointer;
+    private Map<Integer, String> restoredSessions;
+    private static final long CHECKPOINT_INTERVAL_MILLIS = Long.getLong("checkpoint.interval.ms", 5000);
+    // 로그는 링 버퍼에 넣기만 하고 출력은 로그 스레드가 한다
+    private final ServerLog log;
+    private static final int LOG_CAPACITY = 8192;
+    // 접속 제한: 동시 연결 수와 초당 새 연결 수 (넘으면 스트림을 만들기 전에 바로 닫는다)
+    private static final int MAX_CONNECTIONS = Integer.getInteger("server.maxConnections", 2000);
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final TokenBucket acceptBucket = new TokenBucket(
+            Integer.getInteger("server.acceptPerSecond", 50), Integer.getInteger("server.acceptBurst", 200));
+    private final AtomicLong refusedConnections = new AtomicLong();
+    // 지표: 0이면 HTTP로 내보내지 않는다 (기록은 항상 한다)
+    private int metricsPort = Integer.getInteger("server.metricsPort", 0);
+    private MetricsEndpoint metricsEndpoint;
+    private static final String[] GAUGE_NAMES = {
+            "quiz_rooms", "quiz_games", "quiz_sessions", "quiz_connected_clients", "quiz_open_connections",
+            "quiz_refused_connections_total", "quiz_log_dropped_total",
+            "quiz_checkpoint_rooms", "quiz_checkpoint_capture_nanos", "quiz_checkpoint_write_nanos",
+            "quiz_gpt_circuit_state", "quiz_gpt_circuit_failure_rate", "quiz_gpt_circuit_slow_call_rate",
+            "quiz_gpt_circuit_opened_total"
+    };
+    // 방 목록은 마지막 것만 보내면 된다
+    private static final Delivery ROOM_LIST_DELIVERY = Delivery.latest("ROOM_LIST");
 
     public QuizServer(int port) {
+        this(port, RoomRouter.singleNode(), null);
+    }
+
+    public QuizServer(int port, RoomRouter router, NodeTransport transport) {
         this.port = port;
+        this.log = new ServerLog(LOG_CAPACITY);
+        this.router = router;
+        this.transport = transport;
+        this.forwardedRooms = new IntIntMap(-1);
+        this.remoteRoomLists = new ConcurrentHashMap<>();
+        this.resumeTokens = new ConcurrentHashMap<>();
+        this.tokenRandom = new SecureRandom();
+        this.restoredSessions = new ConcurrentHashMap<>();
+        this.checkpointDAO = new RoomCheckpointDAO(router.isSingleNode()
+                ? "src/Data/rooms.ckpt" : "src/Data/rooms-node" + router.getNodeId() + ".ckpt");
+        if (transport != null) {
+            transport.register(router.getNodeId(), this::handleNodeMessage);
+        }
         this.users = new Vector<>();
-        this.rooms = new HashMap<>();
-        this.gameManagers = new HashMap<>();
+        this.sessions = new ConcurrentHashMap<>();
+        this.playerRooms = new IntIntMap(-1);
+        this.sessionIdCounter = new AtomicInteger(1);
+        this.rooms = new ConcurrentHashMap<>();
+        this.gameManagers = new ConcurrentHashMap<>();
         this.roomIdCounter = 1;
-        buildGUI();
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-    }
-
-    private void buildGUI() {
-        setTitle("퀴즈 게임 서버");
-        setSize(500, 600);
-        setLayout(new BorderLayout(5, 5));
-
-        t_display = new JTextArea();
-        t_display.setEditable(false);
-        t_display.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
-        JScrollPane scrollPane = new JScrollPane(t_display);
-        scrollPane.setBorder(new CompoundBorder(
-                new TitledBorder("서버 로그"),
-                new EmptyBorder(5, 5, 5, 5)));
-        add(scrollPane, BorderLayout.CENTER);
-
-        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
-        controlPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
-
-        b_connect = new JButton("서버 시작");
-        b_disconnect = new JButton("서버 중지");
-        b_exit = new JButton("종료");
-
-        b_connect.addActionListener(e -> startServer());
-        b_disconnect.addActionListener(e -> stopServer());
-        b_exit.addActionListener(e -> System.exit(0));
-
-        controlPanel.add(b_connect);
-        controlPanel.add(b_disconnect);
-        controlPanel.add(b_exit);
-        add(controlPanel, BorderLayout.SOUTH);
-
-        setLocationRelativeTo(null);
+        // GPT 퀴즈 캐시: 최대 5000문제, 30일 보관
+        this.quizCache = new QuizCacheDAO("src/Data/gpt-cache.dat", 5000, 30L * 24 * 60 * 60 * 1000);
+        this.gptCircuitBreaker = new GPTCircuitBreaker();
+        this.gptCircuitBreaker.setLogger(this::printDisplay);
+        this.gameExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "game-actor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.gameScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "game-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.quizLoader = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "quiz-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spectatorFeeds = new ConcurrentHashMap<>();
+        this.spectatorRooms = new IntIntMap(-1);
+        this.spectatorScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "spectator-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spectatorScheduler.scheduleAtFixedRate(this::tickSpectatorFeeds,
+                SPECTATOR_TICK_MILLIS, SPECTATOR_TICK_MILLIS, TimeUnit.MILLISECONDS);
     }
 
-    private void startServer() {
+    /**
+     * @return 포트를 열었으면 true
+     */
+    public boolean startServer() {
         try {
             serverSocket = new ServerSocket(port);
             printDisplay("서버가 포트 " + port + "에서 시작되었습니다.");
+            restoreFromCheckpoint();
+            checkpointer = new RoomCheckpointer(this, checkpointDAO, CHECKPOINT_INTERVAL_MILLIS);
+            checkpointer.start();
+            startMetrics();
 
             acceptThread = new Thread(() -> {
                 while (!Thread.interrupted()) {
                     try {
                         Socket clientSocket = serverSocket.accept();
-                        ClientHandler clientHandler = new ClientHandler(clientSocket, this);
-                        users.add(clientHandler);
+                        if (!admitConnection(clientSocket)) {
+                            continue;
+                        }
+                        ClientHandler clientHandler;
+                        try {
+                            clientHandler = new ClientHandler(clientSocket, this);
+                        } catch (IOException e) {
+                            connectionClosed();
+                            clientSocket.close();
+                            continue;   // 스트림 헤더를 주고받기 전에 끊긴 연결
+                        }
+                        addClient(clientHandler);
                         new Thread(clientHandler).start();
                         printDisplay("새로운 클라이언트가 연결되었습니다.");
                     } catch (IOException e) {
@@ -87,21 +172,24 @@ public class QuizServer extends JFrame {
                 }
             });
             acceptThread.start();
-
-            b_connect.setEnabled(false);
-            b_disconnect.setEnabled(true);
-
+            return true;
         } catch (IOException e) {
             printDisplay("서버 시작 오류: " + e.getMessage());
+            return false;
         }
     }
 
-    private void stopServer() {
+    // 관리 창의 "서버 중지": 게임을 모두 끝내고 접속을 끊는다. 다음 시작 때 복원할 것이 없도록 빈 체크포인트를 남긴다.
+    public void stopServer() {
         try {
             for (GameManager gameManager : gameManagers.values()) {
                 gameManager.endGame();
             }
             gameManagers.clear();
+            spectatorFeeds.clear();
+            synchronized (this) {
+                spectatorRooms.clear();
+            }
 
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
@@ -114,22 +202,325 @@ public class QuizServer extends JFrame {
             }
             users.clear();
             rooms.clear();
+            if (checkpointer != null) {
+                // 직접 중지한 경우에는 끝낸 게임이 다음 시작 때 복원되지 않도록 빈 상태를 저장한다
+                checkpointer.stop();
+                checkpointer.checkpointNow();
+                checkpointer = null;
+            }
+            stopMetrics();
             printDisplay("서버가 중지되었습니다.");
-
-            b_connect.setEnabled(true);
-            b_disconnect.setEnabled(false);
         } catch (IOException e) {
             printDisplay("서버 중지 오류: " + e.getMessage());
         }
     }
 
-    public synchronized Room createRoom(String name, String category, int maxPlayers, String hostName,
-                                        int questionCount, int timePerQuestion) {
+    /**
+     * 프로세스 종료(SIGTERM, 순차 재시작) 시 셧다운 훅에서 부른다.
+     * 새 접속만 막고 방과 게임은 그대로 둔 채 마지막 체크포인트를 쓴다. 게임을 끝내거나 GAME_END를 보내지 않으므로
+     * 다시 띄운 서버가 restoreFromCheckpoint로 이어서 진행하고, 클라이언트는 재접속(RESUME)으로 돌아온다.
+     */
+    public void shutdownForRestart() {
+        try {
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            printDisplay("서버 소켓 닫기 오류: " + e.getMessage());
+        }
+        if (acceptThread != null) {
+            acceptThread.interrupt();
+        }
+        if (checkpointer != null) {
+            checkpointer.stop();
+            checkpointer.checkpointNow();
+            printDisplay("종료 전 체크포인트 저장: " + checkpointer.getLastStats());
+            checkpointer = null;
+        }
+        stopMetrics();
+        printDisplay("서버를 종료합니다. 다음 시작 때 방과 게임을 복원합니다.");
+    }
+
+    // 이 서버 인스턴스가 들고 있는 값은 게이지로 등록하고, 포트가 있으면 /metrics 를 연다
+    private void startMetrics() {
+        ServerMetrics.ensureRegistered();
+        MetricsRegistry registry = MetricsRegistry.DEFAULT;
+        String node = String.valueOf(router.getNodeId());
+        registry.gauge("quiz_rooms", "열려 있는 방 수", () -> rooms.size(), "node", node);
+        registry.gauge("quiz_games", "진행 중인 게임 수", () -> gameManagers.size(), "node", node);
+        registry.gauge("quiz_sessions", "세션 수 (재접속 대기 포함)", () -> sessions.size(), "node", node);
+        registry.gauge("quiz_connected_clients", "로비 방송을 받는 연결 수", () -> users.size(), "node", node);
+        registry.gauge("quiz_open_connections", "열린 소켓 수", openConnections::get, "node", node);
+        registry.counterFunction("quiz_refused_connections_total", "접속 제한으로 거절한 연결 수",
+                refusedConnections::get, "node", node);
+        registry.counterFunction("quiz_log_dropped_total", "로그 링 버퍼가 가득 차 버린 로그 수",
+                log::getDroppedCount, "node", node);
+        registry.gauge("quiz_checkpoint_rooms", "마지막 체크포인트의 방 수",
+                () -> checkpointer == null ? 0 : checkpointer.getLastRoomCount(), "node", node);
+        registry.gauge("quiz_checkpoint_capture_nanos", "마지막 체크포인트의 방 상태 캡처 시간 합계 (ns)",
+                () -> checkpointer == null ? 0 : checkpointer.getLastCaptureNanos(), "node", node);
+        registry.gauge("quiz_checkpoint_write_nanos", "마지막 체크포인트의 인코딩과 파일 쓰기 시간 (ns)",
+                () -> checkpointer == null ? 0 : checkpointer.getLastWriteNanos(), "node", node);
+        registry.gauge("quiz_gpt_circuit_state", "GPT 서킷 브레이커 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)",
+                () -> gptCircuitBreaker.getState().ordinal(), "node", node);
+        registry.doubleGauge("quiz_gpt_circuit_failure_rate", "GPT 서킷 브레이커 최근 호출의 실패율",
+                gptCircuitBreaker::getFailureRate, "node", node);
+        registry.doubleGauge("quiz_gpt_circuit_slow_call_rate", "GPT 서킷 브레이커 최근 호출의 느린 호출 비율",
+                gptCircuitBreaker::getSlowCallRate, "node", node);
+        registry.counterFunction("quiz_gpt_circuit_opened_total", "GPT 서킷 브레이커가 열린 횟수",
+                gptCircuitBreaker::getOpenCount, "node", node);
+
+        if (metricsPort > 0) {
+            try {
+                metricsEndpoint = new MetricsEndpoint(registry);
+                metricsEndpoint.addPage("/traces", AnswerTracer::dump);
+                metricsEndpoint.start(metricsPort);
+                printDisplay("지표를 http://localhost:" + metricsEndpoint.getPort() + "/metrics 로 내보냅니다.");
+            } catch (IOException e) {
+                metricsEndpoint = null;
+                printDisplay("지표 HTTP 서버 시작 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void stopMetrics() {
+        if (metricsEndpoint != null) {
+            metricsEndpoint.stop();
+            metricsEndpoint = null;
+        }
+        String node = String.valueOf(router.getNodeId());
+        for (String name : GAUGE_NAMES) {
+            MetricsRegistry.DEFAULT.unregister(name, "node", node);
+        }
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    // 체크포인트에 남은 방과 게임을 되살린다. 플레이어들은 재접속(RESUME)으로 다시 붙는다.
+    private synchronized void restoreFromCheckpoint() {
+        RoomCheckpointDAO.Checkpoint checkpoint = checkpointDAO.load();
+        if (checkpoint == null || checkpoint.rooms.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        roomIdCounter = Math.max(roomIdCounter, checkpoint.nextRoomSeq);
+        sessionIdCounter.set(Math.max(sessionIdCounter.get(), checkpoint.nextSessionSeq));
+        for (RoomCheckpointDAO.SessionState session : checkpoint.sessions) {
+            restoredSessions.put(session.sessionId, session.playerName);
+            resumeTokens.put(session.token, session.sessionId);
+        }
+
+        int restoredGames = 0;
+        for (RoomCheckpointDAO.RoomState state : checkpoint.rooms) {
+            Room room;
+            try {
+                room = new Room(state.roomId, state.roomName, state.hostId, state.hostName, state.maxPlayers,
+                        Room.QuizCategory.fromKoreanName(state.category), state.questionCount, state.timePerQuestion);
+            } catch (IllegalArgumentException e) {
+                printDisplay("방 복원 실패: " + e.getMessage());
+                continue;
+            }
+            for (int i = 0; i < state.playerIds.length; i++) {
+                room.addPlayer(state.playerIds[i], state.playerNames[i]);
+                playerRooms.put(state.playerIds[i], room.getRoomId());
+            }
+            rooms.put(room.getRoomId(), room);
+            // 게임 상태를 잡지 못한 방은 대기실 상태로 되돌린다
+            if (state.gameStarted && state.game != null) {
+                room.setGameStarted(true);
+                gameManagers.put(room.getRoomId(), new GameManager(this, room.getRoomId(), state.game));
+                restoredGames++;
+            }
+        }
+        printDisplay(String.format("체크포인트에서 방 %d개, 게임 %d개를 복원했습니다. (%.1fms, 저장 후 %d초 경과)",
+                rooms.size(), restoredGames, (System.nanoTime() - start) / 1_000_000.0,
+                (System.currentTimeMillis() - checkpoint.savedAt) / 1000));
+        gameScheduler.schedule(this::expireRestoredSessions, SESSION_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // 재시작 후 돌아오지 않은 플레이어는 일반 퇴장처럼 정리한다
+    private synchronized void expireRestoredSessions() {
+        for (Integer sessionId : new ArrayList<>(restoredSessions.keySet())) {
+            restoredSessions.remove(sessionId);
+            resumeTokens.values().removeIf(id -> id.equals(sessionId));
+            Room room = findPlayerRoom(sessionId);
+            if (room != null) {
+                leaveRoom(room.getRoomId(), sessionId);
+            }
+        }
+    }
+
+    Collection<Room> getRooms() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    GameManager getGameManager(int roomId) {
+        return gameManagers.get(roomId);
+    }
+
+    synchronized int getNextRoomSeq() {
+        return roomIdCounter;
+    }
+
+    int getNextSessionSeq() {
+        return sessionIdCounter.get();
+    }
+
+    // 이 노드에 소켓이 붙어 있는(또는 재접속을 기다리는) 세션의 토큰
+    List<RoomCheckpointDAO.SessionState> getResumableSessions() {
+        List<RoomCheckpointDAO.SessionState> result = new ArrayList<>();
+        for (ClientHandler client : sessions.values()) {
+            if (!(client instanceof RemoteClientHandler) && client.getResumeToken() != null) {
+                result.add(new RoomCheckpointDAO.SessionState(client.getSessionId(), client.getResumeToken(),
+                        client.getPlayerName()));
+            }
+        }
+        for (Map.Entry<String, Integer> entry : resumeTokens.entrySet()) {
+            String name = restoredSessions.get(entry.getValue());
+            if (name != null) {
+                result.add(new RoomCheckpointDAO.SessionState(entry.getValue(), entry.getKey(), name));
+            }
+        }
+        return result;
+    }
+
+    public RoomCheckpointer getCheckpointer() {
+        return checkpointer;
+    }
+
+    // ID: 핸드셰이크 때 호출되어 새 세션 id를 발급한다
+    public int registerSession(ClientHandler client) {
+        long start = System.nanoTime();
+        int sessionId = router.sessionId(sessionIdCounter.getAndIncrement());
+        sessions.put(sessionId, client);
+        ServerMetrics.REGISTER_SESSION.observeNanos(ServerMetrics.since(start));
+        return sessionId;
+    }
+
+    // 소켓 없는 세션을 id 그대로 등록한다 (벤치마크의 가짜 세션)
+    void attachSession(ClientHandler client) {
+        sessions.put(client.getSessionId(), client);
+    }
+
+    public String issueResumeToken(ClientHandler client) {
+        byte[] bytes = new byte[16];
+        tokenRandom.nextBytes(bytes);
+        StringBuilder token = new StringBuilder();
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        resumeTokens.put(token.toString(), client.getSessionId());
+        return token.toString();
+    }
+
+    // 연결이 예기치 않게 끊겼을 때: 방 자리와 점수는 그대로 두고 SESSION_GRACE_MILLIS 동안 재접속을 기다린다
+    public synchronized void connectionLost(ClientHandler client) {
+        int sessionId = client.getSessionId();
+        if (sessionId <= 0 || sessions.get(sessionId) != client) {
+            users.remove(client);   // 핸드셰이크 전이거나 이미 새 연결로 넘어간 세션
+            return;
+        }
+        client.detachOutbox();
+        printDisplay(client.getPlayerName() + " 플레이어의 연결이 끊겼습니다. " + (SESSION_GRACE_MILLIS / 1000) + "초 동안 재접속을 기다립니다.");
+        Room room = findPlayerRoom(sessionId);
+        if (room != null) {
+            broadcastToRoom(room.getRoomId(), client.getPlayerName() + "님의 연결이 끊겼습니다. 잠시 기다려주세요.");
+        }
+        gameScheduler.schedule(() -> expireSession(client), SESSION_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void expireSession(ClientHandler client) {
+        if (sessions.get(client.getSessionId()) == client && !client.isAttached()) {
+            printDisplay(client.getPlayerName() + " 플레이어가 재접속하지 않아 세션을 정리합니다.");
+            removeClient(client);
+        }
+    }
+
+    // RESUME:<토큰>:<받은 개수> 처리. 성공하면 새 연결이 기존 세션 id와 송신 버퍼를 이어받는다.
+    public synchronized void resumeSession(ClientHandler client, String token, long receivedCount) {
+        Integer sessionId = resumeTokens.get(token);
+        ClientHandler previous = sessionId == null ? null : sessions.get(sessionId);
+        if (previous == null && sessionId != null && restoredSessions.containsKey(sessionId)) {
+            resumeRestoredSession(client, sessionId, token, receivedCount);
+            return;
+        }
+        if (previous == null || previous == client) {
+            rejectResume(client);
+            return;
+        }
+        previous.closeSocket();     // 아직 끊긴 걸 모르는 이전 연결이 있으면 정리
+        previous.detachOutbox();
+        if (!client.adoptSession(previous, receivedCount)) {
+            rejectResume(client);
+            return;
+        }
+        sessions.put(sessionId, client);
+        users.remove(previous);
+        printDisplay(client.getPlayerName() + " 플레이어가 다시 연결되었습니다.");
+        Room room = findPlayerRoom(sessionId);
+        if (room != null) {
+            broadcastToRoom(room.getRoomId(), client.getPlayerName() + "님이 다시 연결되었습니다.");
+        }
+    }
+
+    // 서버 재시작 전 세션: 버퍼는 없으므로 방 화면과 현재 문제를 다시 보내 준다
+    private void resumeRestoredSession(ClientHandler client, int sessionId, String token, long receivedCount) {
+        String playerName = restoredSessions.remove(sessionId);
+        if (!client.adoptRestoredSession(sessionId, playerName, token, receivedCount)) {
+            rejectResume(client);
+            return;
+        }
+        sessions.put(sessionId, client);
+        printDisplay(playerName + " 플레이어가 서버 재시작 후 다시 연결되었습니다.");
+        Room room = findPlayerRoom(sessionId);
+        if (room != null) {
+            client.send("JOIN_ROOM:" + room.getRoomId());
+            broadcastToRoom(room.getRoomId(), playerName + "님이 다시 연결되었습니다.");
+            GameManager gameManager = gameManagers.get(room.getRoomId());
+            if (gameManager != null) {
+                gameManager.resync(sessionId);
+            }
+        }
+    }
+
+    // 이어받을 수 없으면 새로 ID:부터 시작하게 한다. 이 연결에서 보낸 메시지 수를 알려 클라이언트가 개수를 맞춘다.
+    public void rejectResume(ClientHandler client) {
+        client.send("RESUME_FAILED:" + (client.getSentCount() + 1));
+    }
+
+    // 등록부 작업 시간은 락 대기까지 재도록 동기화 바깥에서 잰다
+    public Room createRoom(String name, String category, int maxPlayers, int hostId, String hostName,
+                           int questionCount, int timePerQuestion) {
+        long start = System.nanoTime();
+        QuizEvents.RoomCreated event = new QuizEvents.RoomCreated();
+        event.begin();
+        Room room = null;
+        try {
+            room = createRoomLocked(name, category, maxPlayers, hostId, hostName, questionCount, timePerQuestion);
+            return room;
+        } finally {
+            ServerMetrics.CREATE_ROOM.observeNanos(ServerMetrics.since(start));
+            if (room != null && event.shouldCommit()) {
+                event.roomId = room.getRoomId();
+                event.roomName = name;
+                event.category = category;
+                event.maxPlayers = maxPlayers;
+                event.questionCount = questionCount;
+                event.commit();
+            }
+        }
+    }
+
+    private synchronized Room createRoomLocked(String name, String category, int maxPlayers, int hostId, String hostName,
+                                               int questionCount, int timePerQuestion) {
         try {
             Room.QuizCategory quizCategory = Room.QuizCategory.fromKoreanName(category);
-            Room room = new Room(roomIdCounter++, name, hostName, maxPlayers, quizCategory,
+            Room room = new Room(router.roomId(roomIdCounter++), name, hostId, hostName, maxPlayers, quizCategory,
                     questionCount, timePerQuestion);
             rooms.put(room.getRoomId(), room);
+            playerRooms.put(hostId, room.getRoomId());
             printDisplay(hostName + "님이 '" + name + "' 방을 생성했습니다.");
             broadcastRoomList();
             return room;
@@ -139,10 +530,21 @@ public class QuizServer extends JFrame {
         }
     }
 
-    public synchronized boolean joinRoom(int roomId, String playerName) {
+    public boolean joinRoom(int roomId, int playerId, String playerName) {
+        long start = System.nanoTime();
+        try {
+            return joinRoomLocked(roomId, playerId, playerName);
+        } finally {
+            ServerMetrics.JOIN_ROOM.observeNanos(ServerMetrics.since(start));
+        }
+    }
+
+    private synchronized boolean joinRoomLocked(int roomId, int playerId, String playerName) {
+        leaveSpectate(playerId);
         Room room = rooms.get(roomId);
         if (room != null && !room.isFull() && !room.isGameStarted()) {
-            if (room.addPlayer(playerName)) {
+            if (room.addPlayer(playerId, playerName)) {
+                playerRooms.put(playerId, roomId);
                 printDisplay(playerName + "님이 " + room.getRoomName() + " 방에 참가했습니다.");
                 broadcastToRoom(roomId, playerName + "님이 입장하셨습니다.");
                 broadcastRoomList();
@@ -152,25 +554,126 @@ public class QuizServer extends JFrame {
         return false;
     }
 
+    public QuizCacheDAO getQuizCache() {
+        return quizCache;
+    }
+
+    public GPTCircuitBreaker getGptCircuitBreaker() {
+        return gptCircuitBreaker;
+    }
+
+    public ExecutorService getGameExecutor() {
+        return gameExecutor;
+    }
+
+    public ScheduledExecutorService getGameScheduler() {
+        return gameScheduler;
+    }
+
+    public ExecutorService getQuizLoader() {
+        return quizLoader;
+    }
+
     public Room getRoom(int roomId) {
         return rooms.get(roomId);
     }
 
-    public synchronized void leaveRoom(int roomId, String playerName) {
+    public SpectatorFeed getSpectatorFeed(int roomId) {
+        return spectatorFeeds.computeIfAbsent(roomId, id -> new SpectatorFeed(this, id));
+    }
+
+    // 관전은 인원 제한이나 게임 진행 여부와 상관없이 가능하다. 방에 참가 중인 플레이어는 관전할 수 없다.
+    public boolean spectateRoom(int roomId, int sessionId) {
+        SpectatorFeed feed;
+        synchronized (this) {
+            if (!rooms.containsKey(roomId) || playerRooms.containsKey(sessionId)) {
+                return false;
+            }
+            leaveSpectate(sessionId);
+            spectatorRooms.put(sessionId, roomId);
+            feed = getSpectatorFeed(roomId);
+        }
+        sendToSession(sessionId, "SPECTATE_JOIN:" + roomId);
+        feed.addSpectator(sessionId);     // 현재 상태 스냅샷을 바로 보낸다
+        return true;
+    }
+
+    public synchronized void leaveSpectate(int sessionId) {
+        int roomId = spectatorRooms.remove(sessionId);
+        if (roomId >= 0) {
+            SpectatorFeed feed = spectatorFeeds.get(roomId);
+            if (feed != null) {
+                feed.removeSpectator(sessionId);
+            }
+        }
+    }
+
+    // 방이 삭제되면 관전자들을 로비로 돌려보낸다
+    private synchronized void closeSpectatorFeed(int roomId) {
+        SpectatorFeed feed = spectatorFeeds.remove(roomId);
+        if (feed == null) {
+            return;
+        }
+        for (int sessionId : feed.getSpectators()) {
+            spectatorRooms.remove(sessionId);
+            sendToSession(sessionId, "[방 " + roomId + "] 방이 삭제되어 관전을 종료합니다.");
+            sendToSession(sessionId, "LOBBY:");
+        }
+    }
+
+    private void tickSpectatorFeeds() {
+        for (SpectatorFeed feed : spectatorFeeds.values()) {
+            try {
+                feed.tick();
+            } catch (RuntimeException e) {
+                printDisplay("[관전 방 " + feed.getRoomId() + "] 피드 전송 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    public void leaveRoom(int roomId, int playerId) {
+        long start = System.nanoTime();
+        try {
+            leaveRoomLocked(roomId, playerId);
+        } finally {
+            ServerMetrics.LEAVE_ROOM.observeNanos(ServerMetrics.since(start));
+        }
+    }
+
+    private synchronized void leaveRoomLocked(int roomId, int playerId) {
         Room room = rooms.get(roomId);
         if (room != null) {
-            room.removePlayer(playerName);
+            String playerName = room.getPlayerName(playerId);
+            room.removePlayer(playerId);
+            if (playerRooms.get(playerId) == roomId) {
+                playerRooms.remove(playerId);
+            }
             printDisplay(playerName + "님이 " + room.getRoomName() + " 방에서 나갔습니다.");
             broadcastToRoom(roomId, playerName + "님이 퇴장하셨습니다.");
 
-            if (gameManagers.containsKey(roomId)) {
+            boolean gameInProgress = gameManagers.containsKey(roomId);
+            if (gameInProgress) {
                 GameManager gameManager = gameManagers.get(roomId);
                 gameManager.endGame();
                 gameManagers.remove(roomId);
             }
 
-            if (room.getPlayers().isEmpty() || playerName.equals(room.getHostName())) {
+            if (room.getPlayerCount() == 0 || playerId == room.getHostId()) {
+                QuizEvents.RoomRemoved event = new QuizEvents.RoomRemoved();
+                if (event.shouldCommit()) {
+                    event.roomId = roomId;
+                    event.roomName = room.getRoomName();
+                    event.hostLeft = playerId == room.getHostId();
+                    event.gameInProgress = gameInProgress;
+                    event.commit();
+                }
                 rooms.remove(roomId);
+                for (int remainingId : room.getPlayerIds()) {
+                    if (playerRooms.get(remainingId) == roomId) {
+                        playerRooms.remove(remainingId);
+                    }
+                }
+                closeSpectatorFeed(roomId);
                 printDisplay(room.getRoomName() + " 방이 삭제되었습니다.");
             }
 
@@ -178,162 +681,518 @@ public class QuizServer extends JFrame {
         }
     }
 
-    private void broadcastRoomList() {
+    // 로비 방송(방 목록 등)을 받을 연결로 등록한다
+    void addClient(ClientHandler client) {
+        users.add(client);
+    }
+
+    // 벤치마크(QuizBenchmark)에서도 직접 부를 수 있도록 패키지 범위로 둔다
+    void broadcastRoomList() {
         StringBuilder roomList = new StringBuilder("ROOM_LIST:");
+        // 진행 중인 방도 관전할 수 있도록 목록에 넣고, 마지막 필드로 진행 여부를 보낸다
         for (Room room : rooms.values()) {
-            if (!room.isGameStarted()) {
-                roomList.append(room.getRoomId()).append(",")
-                        .append(room.getRoomName()).append(",")
-                        .append(room.getCategory().getKoreanName()).append(",")
-                        .append(room.getHostName()).append(",")
-                        .append(room.getPlayers().size()).append(",")
-                        .append(room.getMaxPlayers()).append(",")
-                        .append(room.getQuestionCount()).append(",")
-                        .append(room.getTimePerQuestion()).append(";");
+            roomList.append(room.getRoomId()).append(",")
+                    .append(room.getRoomName()).append(",")
+                    .append(room.getCategory().getKoreanName()).append(",")
+                    .append(room.getHostName()).append(",")
+                    .append(room.getPlayerCount()).append(",")
+                    .append(room.getMaxPlayers()).append(",")
+                    .append(room.getQuestionCount()).append(",")
+                    .append(room.getTimePerQuestion()).append(",")
+                    .append(room.isGameStarted() ? 1 : 0).append(";");
+        }
+        if (router.isSingleNode()) {
+            broadcastMessage(roomList.toString(), ROOM_LIST_DELIVERY);
+            return;
+        }
+        // 다른 노드에도 이 노드의 방 목록 조각을 알리고, 로컬 플레이어에게는 전체를 합쳐서 보낸다
+        String fragment = roomList.substring("ROOM_LIST:".length());
+        for (int node = 0; node < router.getNodeCount(); node++) {
+            if (!router.isLocal(node)) {
+                sendToNode(node, -1, null, "ROOM_LIST_PART:" + fragment);
             }
         }
-        broadcastMessage(roomList.toString());
+        remoteRoomLists.put(router.getNodeId(), fragment);
+        broadcastMergedRoomList();
+    }
+
+    private void broadcastMergedRoomList() {
+        StringBuilder merged = new StringBuilder("ROOM_LIST:");
+        for (String fragment : remoteRoomLists.values()) {
+            merged.append(fragment);
+        }
+        broadcastMessage(merged.toString(), ROOM_LIST_DELIVERY);
     }
 
     public void broadcastToRoom(int roomId, String message) {
+        broadcastToRoom(roomId, message, Delivery.CRITICAL);
+    }
+
+    public void broadcastToRoom(int roomId, String message, Delivery delivery) {
         Room room = rooms.get(roomId);
         if (room != null) {
             printDisplay(String.format("[방 %d] %s", roomId, message));
-            for (ClientHandler client : users) {
-                if (room.getPlayers().contains(client.getPlayerName())) {
-                    client.send("[방 " + roomId + "] " + message);
+            QuizEvents.BroadcastFanout event = new QuizEvents.BroadcastFanout();
+            event.begin();
+            String framed = "[방 " + roomId + "] " + message;
+            int recipients = 0;
+            for (int playerId : room.getPlayerIds()) {
+                ClientHandler client = sessions.get(playerId);
+                if (client != null) {
+                    client.send(framed, delivery);
+                    recipients++;
                 }
             }
+            commitFanout(event, roomId, recipients, framed, delivery);
+        }
+    }
+
+    // 방 안의 한 사람에게만 보낸다 (방 메시지와 같은 "[방 n] " 형식)
+    public void sendToPlayer(int roomId, int sessionId, String message) {
+        sendToSession(sessionId, "[방 " + roomId + "] " + message);
+    }
+
+    public void sendToSession(int sessionId, String message) {
+        sendToSession(sessionId, message, Delivery.CRITICAL);
+    }
+
+    public void sendToSession(int sessionId, String message, Delivery delivery) {
+        ClientHandler client = sessions.get(sessionId);
+        if (client != null) {
+            client.send(message, delivery);
         }
     }
 
     public void broadcastMessage(String message) {
-        for (ClientHandler client : users) {
-            client.send(message);
+        broadcastMessage(message, Delivery.CRITICAL);
+    }
+
+    public void broadcastMessage(String message, Delivery delivery) {
+        // 접속 스레드가 도중에 추가/삭제해도 되도록 복사본을 돈다 (Vector의 반복자는 동시 수정을 허용하지 않음)
+        QuizEvents.BroadcastFanout event = new QuizEvents.BroadcastFanout();
+        event.begin();
+        ClientHandler[] recipients = users.toArray(new ClientHandler[0]);
+        for (ClientHandler client : recipients) {
+            client.send(message, delivery);
+        }
+        commitFanout(event, -1, recipients.length, message, delivery);
+    }
+
+    private static void commitFanout(QuizEvents.BroadcastFanout event, int roomId, int recipients,
+                                     String message, Delivery delivery) {
+        if (event.shouldCommit()) {
+            event.roomId = roomId;
+            event.recipients = recipients;
+            event.messageLength = message.length();
+            event.droppable = delivery.isDroppable();
+            event.commit();
         }
     }
 
+    // 송신 버퍼가 HARD_LIMIT를 넘은 세션: 재접속 대기 없이 정리한다 (보내던 스레드를 막지 않도록 타이머 스레드에서)
+    void evictSlowConsumer(ClientHandler client) {
+        gameScheduler.execute(() -> {
+            printDisplay(String.format("%s 플레이어의 수신이 밀려(%d개) 연결을 끊습니다. (누적: 끊음 %d, 버림 %d, 덮어씀 %d)",
+                    client.getPlayerName(), client.getBacklog(), SessionOutbox.getEvictedTotal(),
+                    SessionOutbox.getDroppedTotal(), SessionOutbox.getConflatedTotal()));
+            client.disconnect();
+        });
+    }
+
     public void removeClient(ClientHandler client) {
         users.remove(client);
         String playerName = client.getPlayerName();
-        if (playerName != null) {
-            for (Room room : rooms.values()) {
-                if (room.getPlayers().contains(playerName)) {
-                    leaveRoom(room.getRoomId(), playerName);
-                    break;
-                }
+        int sessionId = client.getSessionId();
+        if (sessionId > 0) {
+            if (!sessions.remove(sessionId, client) && sessions.containsKey(sessionId)) {
+                return;     // 새 연결이 이 세션을 이어받았으므로 방은 그대로 둔다
+            }
+            if (client.getResumeToken() != null) {
+                resumeTokens.remove(client.getResumeToken());
+            }
+            leaveSpectate(sessionId);
+            notifyOwnerOfDisconnect(sessionId);
+            Room room = findPlayerRoom(sessionId);
+            if (room != null) {
+                leaveRoom(room.getRoomId(), sessionId);
             }
             printDisplay(playerName + " 플레이어가 퇴장했습니다. (현재 접속자 수: " + users.size() + "명)");
         }
     }
 
     public void handleMessage(ClientHandler client, String message) {
-        if (message.startsWith("CREATE_ROOM:")) {
-            try {
-                String[] parts = message.substring(12).split(",");
-                Room room = createRoom(parts[0],             // 방 이름
-                        parts[1],             // 카테고리
-                        Integer.parseInt(parts[2]), // 최대 인원
-                        client.getPlayerName(),
-                        Integer.parseInt(parts[3]), // 문제 개수
-                        Integer.parseInt(parts[4])); // 문제당 시간
+        handleMessage(client, Opcode.of(message), message);
+    }
+
+    // 메시지 종류별 처리는 switch 한 번으로 바로 찾아간다 (예전처럼 startsWith를 차례로 비교하지 않음)
+    public void handleMessage(ClientHandler client, Opcode opcode, String message) {
+        if (forwardToOwner(client, opcode, message)) {
+            return;
+        }
+        switch (opcode) {
+            case ANSWER:
+                handleAnswer(client, message);
+                break;
+            case RPS_CHOICE:
+                handleRPSChoice(client, message);
+                break;
+            case CHAT:
+                Room room = findPlayerRoom(client.getSessionId());
                 if (room != null) {
-                    client.send("JOIN_ROOM:" + room.getRoomId());
-                } else {
-                    client.send("방 생성에 실패했습니다.");
+                    broadcastToRoom(room.getRoomId(), message, Delivery.DROPPABLE);
+                }
+                break;
+            case CREATE_ROOM:
+                handleCreateRoom(client, message);
+                break;
+            case JOIN_ROOM:
+                handleJoinRoom(client, message);
+                break;
+            case SPECTATE:
+                try {
+                    int roomId = MessageFields.intArg(message, opcode.argStart());
+                    if (!spectateRoom(roomId, client.getSessionId())) {
+                        client.send("관전 실패: 방이 없거나 이미 방에 참가 중입니다.");
+                    }
+                } catch (Exception e) {
+                    client.send("관전 실패: " + e.getMessage());
+                }
+                break;
+            case LEAVE_SPECTATE:
+                leaveSpectate(client.getSessionId());
+                client.send("LOBBY:");
+                break;
+            case LEAVE_ROOM:
+                try {
+                    leaveRoom(MessageFields.intArg(message, opcode.argStart()), client.getSessionId());
+                    client.send("LOBBY:");
+                } catch (Exception e) {
+                    client.send("방 나가기 실패: " + e.getMessage());
+                }
+                break;
+            case START_GAME:
+                handleStartGame(client, message);
+                break;
+            case MODE_CHOICE:
+                handleModeChoice(client, message);
+                break;
+            case RPS_WINNER:
+                // 승자는 서버가 판정하므로 클라이언트가 보내는 결과는 무시한다
+                break;
+            default:
+                // ID / RESUME / QUIT는 ClientHandler가 처리한다
+                break;
+        }
+    }
+
+    private void handleAnswer(ClientHandler client, String message) {
+        AnswerTrace trace = client.getInboundTrace();
+        if (trace != null) {
+            trace.mark(AnswerTrace.Stage.DISPATCHED);
+        }
+        try {
+            Room room = findPlayerRoom(client.getSessionId());
+            if (room != null) {
+                GameManager gameManager = gameManagers.get(room.getRoomId());
+                if (gameManager != null) {
+                    if (trace != null) {
+                        trace.setRoomId(room.getRoomId());
+                        trace.mark(AnswerTrace.Stage.ROOM_FOUND);
+                    }
+                    QuizEvents.AnswerReceived event = new QuizEvents.AnswerReceived();
+                    if (event.shouldCommit()) {
+                        event.roomId = room.getRoomId();
+                        event.sessionId = client.getSessionId();
+                        event.commit();
+                    }
+                    gameManager.handleAnswer(client.getSessionId(), message.substring(Opcode.ANSWER.argStart()), trace);
+                    return;
                 }
-            } catch (Exception e) {
-                client.send("방 생성 실패: " + e.getMessage());
             }
-        } else if (message.startsWith("JOIN_ROOM:")) {
-            try {
-                int roomId = Integer.parseInt(message.substring(10));
-                if (joinRoom(roomId, client.getPlayerName())) {
-                    client.send("JOIN_ROOM:" + roomId);
+            if (trace != null) {
+                AnswerTracer.finish(trace);     // 방이나 게임이 없어 버린 답변
+            }
+        } catch (Exception e) {
+            client.send("답변 처리 실패: " + e.getMessage());
+        }
+    }
+
+    // 방 액터에서 채점을 마친 추적 표본: 결과 프레임이 답한 사람의 소켓에 쓰일 때 끝난다
+    void traceResultWrite(int sessionId, AnswerTrace trace) {
+        ClientHandler client = sessions.get(sessionId);
+        if (client == null || !trace.isGraded()) {
+            AnswerTracer.finish(trace);
+        } else {
+            client.traceNextWrite(trace);
+        }
+    }
+
+    private void handleRPSChoice(ClientHandler client, String message) {
+        Room room = findPlayerRoom(client.getSessionId());
+        if (room != null) {
+            GameManager gameManager = gameManagers.get(room.getRoomId());
+            if (gameManager != null) {
+                RPS choice = RPS.fromWire(message, Opcode.RPS_CHOICE.argStart());
+                if (choice != null) {
+                    gameManager.handleRPSChoice(client.getSessionId(), choice);
                 } else {
-                    client.send("방 참가 실패: 방이 가득 찼거나 게임이 시작되었습니다.");
+                    client.send("잘못된 가위바위보 선택입니다.");
                 }
-            } catch (Exception e) {
-                client.send("방 참가 실패: " + e.getMessage());
             }
-        } else if (message.startsWith("LEAVE_ROOM:")) {
-            try {
-                int roomId = Integer.parseInt(message.substring(11));
-                leaveRoom(roomId, client.getPlayerName());
-                client.send("LOBBY:");
-            } catch (Exception e) {
-                client.send("방 나가기 실패: " + e.getMessage());
+        }
+    }
+
+    private void handleCreateRoom(ClientHandler client, String message) {
+        try {
+            MessageFields fields = new MessageFields(message, Opcode.CREATE_ROOM.argStart(), ',');
+            Room room = createRoom(fields.nextString(),   // 방 이름
+                    fields.nextString(),                  // 카테고리
+                    fields.nextInt(),                     // 최대 인원
+                    client.getSessionId(),
+                    client.getPlayerName(),
+                    fields.nextInt(),                     // 문제 개수
+                    fields.nextInt());                    // 문제당 시간
+            if (room != null) {
+                client.send("JOIN_ROOM:" + room.getRoomId());
+            } else {
+                client.send("방 생성에 실패했습니다.");
             }
-        } else if (message.startsWith("START_GAME:")) {
-            try {
-                int roomId = Integer.parseInt(message.substring(11));
-                Room room = rooms.get(roomId);
-                if (room != null && room.getHostName().equals(client.getPlayerName())) {
-                    if (room.getPlayers().size() >= 2) {
-                        client.send("SELECT_MODE");
-                    } else {
-                        client.send("게임 시작 실패: 최소 2명의 플레이어가 필요합니다.");
-                    }
+        } catch (Exception e) {
+            client.send("방 생성 실패: " + e.getMessage());
+        }
+    }
+
+    private void handleJoinRoom(ClientHandler client, String message) {
+        try {
+            int roomId = MessageFields.intArg(message, Opcode.JOIN_ROOM.argStart());
+            if (joinRoom(roomId, client.getSessionId(), client.getPlayerName())) {
+                client.send("JOIN_ROOM:" + roomId);
+            } else {
+                client.send("방 참가 실패: 방이 가득 찼거나 게임이 시작되었습니다.");
+            }
+        } catch (Exception e) {
+            client.send("방 참가 실패: " + e.getMessage());
+        }
+    }
+
+    private void handleStartGame(ClientHandler client, String message) {
+        try {
+            Room room = rooms.get(MessageFields.intArg(message, Opcode.START_GAME.argStart()));
+            if (room != null && room.getHostId() == client.getSessionId()) {
+                if (room.getPlayerCount() >= 2) {
+                    client.send("SELECT_MODE");
+                } else {
+                    client.send("게임 시작 실패: 최소 2명의 플레이어가 필요합니다.");
                 }
-            } catch (Exception e) {
-                client.send("게임 시작 실패: " + e.getMessage());
             }
-        } else if (message.startsWith("MODE_CHOICE:")) {
-            try {
-                String mode = message.substring(11);  // "GPT" 또는 "NORMAL"
-                boolean useGPT = mode.equals("GPT");
-                Room room = findPlayerRoom(client.getPlayerName());
-                if (room != null) {
-                    printDisplay(room.getRoomName() + " 방에서 " + (useGPT ? "GPT" : "일반") + " 모드로 게임을 시작합니다.");
-                    GameManager gameManager = new GameManager(this, room.getRoomId(), useGPT);
-                    gameManagers.put(room.getRoomId(), gameManager);
-                    room.setGameStarted(true);
-                    gameManager.startGame();
-                    broadcastToRoom(room.getRoomId(), "게임이 " + (useGPT ? "GPT" : "일반") + " 모드로 시작되었습니다.");
+        } catch (Exception e) {
+            client.send("게임 시작 실패: " + e.getMessage());
+        }
+    }
+
+    private void handleModeChoice(ClientHandler client, String message) {
+        try {
+            // "GPT" 또는 "NORMAL"
+            boolean useGPT = message.startsWith("GPT", Opcode.MODE_CHOICE.argStart())
+                    && message.length() == Opcode.MODE_CHOICE.argStart() + 3;
+            Room room;
+            // 방장만, 그리고 한 번만 시작할 수 있다 (진행 중인 GameManager를 바꿔 끼우면 이전 액터와 타이머가 계속 방송한다)
+            synchronized (this) {
+                room = findPlayerRoom(client.getSessionId());
+                if (room == null || room.getHostId() != client.getSessionId()) {
+                    client.send("게임 시작 실패: 방장만 게임을 시작할 수 있습니다.");
+                    return;
+                }
+                if (room.isGameStarted()) {
+                    client.send("게임 시작 실패: 이미 게임이 시작되었습니다.");
+                    return;
                 }
-            } catch (Exception e) {
-                client.send("게임 시작 실패: " + e.getMessage());
+                room.setGameStarted(true);
             }
-        } else if (message.startsWith("ANSWER:")) {
-            try {
-                Room room = findPlayerRoom(client.getPlayerName());
-                if (room != null) {
-                    GameManager gameManager = gameManagers.get(room.getRoomId());
-                    if (gameManager != null) {
-                        String answer = message.substring(7);
-                        gameManager.handleAnswer(client.getPlayerName(), answer);
-                    }
+            printDisplay(room.getRoomName() + " 방에서 " + (useGPT ? "GPT" : "일반") + " 모드로 게임을 시작합니다.");
+            GameManager gameManager = new GameManager(this, room.getRoomId(), useGPT);
+            gameManagers.put(room.getRoomId(), gameManager);
+            broadcastRoomList();
+            gameManager.startGame();
+            broadcastToRoom(room.getRoomId(), "게임이 " + (useGPT ? "GPT" : "일반") + " 모드로 시작되었습니다.");
+        } catch (Exception e) {
+            client.send("게임 시작 실패: " + e.getMessage());
+        }
+    }
+
+    // 다른 노드가 담당하는 방에 관한 메시지면 담당 노드로 넘기고 true를 돌려준다
+    private boolean forwardToOwner(ClientHandler client, Opcode opcode, String message) {
+        if (router.isSingleNode() || client instanceof RemoteClientHandler) {
+            return false;   // 대리 세션의 메시지는 이미 이 노드로 라우팅된 것
+        }
+        int targetNode = -1;
+        try {
+            if (opcode == Opcode.CREATE_ROOM) {
+                targetNode = router.pickNodeForNewRoom();
+            } else if (opcode == Opcode.JOIN_ROOM || opcode == Opcode.SPECTATE) {
+                targetNode = router.ownerOf(MessageFields.intArg(message, opcode.argStart()));
+            } else {
+                int remoteRoomId;
+                synchronized (this) {
+                    remoteRoomId = forwardedRooms.get(client.getSessionId());
+                }
+                if (remoteRoomId >= 0) {
+                    targetNode = router.ownerOf(remoteRoomId);
                 }
-            } catch (Exception e) {
-                client.send("답변 처리 실패: " + e.getMessage());
             }
-        } else {
-            Room room = findPlayerRoom(client.getPlayerName());
-            if (room != null) {
-                broadcastToRoom(room.getRoomId(), message);
+        } catch (NumberFormatException e) {
+            return false;   // 로컬에서 기존처럼 오류 응답
+        }
+        if (targetNode < 0 || router.isLocal(targetNode)) {
+            return false;
+        }
+        sendToNode(targetNode, client.getSessionId(), client.getPlayerName(), message);
+        return true;
+    }
+
+    public void sendToNode(int node, int sessionId, String playerName, String message) {
+        if (transport == null) {
+            printDisplay("노드 전송 설정이 없어 메시지를 보낼 수 없습니다: 노드 " + node);
+            return;
+        }
+        transport.send(router.getNodeId(), node, sessionId, playerName, message);
+    }
+
+    private void handleNodeMessage(int fromNode, int sessionId, String playerName, String message) {
+        if (sessionId < 0) {
+            if (message.startsWith("ROOM_LIST_PART:")) {
+                remoteRoomLists.put(fromNode, message.substring("ROOM_LIST_PART:".length()));
+                broadcastMergedRoomList();
             }
+            return;
+        }
+
+        if (router.isLocal(router.homeOf(sessionId))) {
+            // 담당 노드가 로컬 플레이어에게 보낸 응답
+            trackForwardedRoom(sessionId, message);
+            sendToSession(sessionId, message);
+            return;
         }
+
+        // 다른 노드 플레이어의 요청: 대리 세션으로 처리한다
+        if (message.equals("SESSION_CLOSED")) {
+            ClientHandler proxy = sessions.get(sessionId);
+            if (proxy != null) {
+                removeClient(proxy);
+            }
+            return;
+        }
+        ClientHandler proxy = sessions.computeIfAbsent(sessionId,
+                id -> new RemoteClientHandler(this, id, playerName, fromNode));
+        handleMessage(proxy, message);
     }
 
-    private Room findPlayerRoom(String playerName) {
-        for (Room room : rooms.values()) {
-            if (room.getPlayers().contains(playerName)) {
-                return room;
+    // 담당 노드의 응답을 보고 로컬 세션이 어느 원격 방에 있는지 기억한다
+    private synchronized void trackForwardedRoom(int sessionId, String message) {
+        if (message.startsWith("JOIN_ROOM:")) {
+            forwardedRooms.put(sessionId, Integer.parseInt(message.substring(10)));
+        } else if (message.startsWith("SPECTATE_JOIN:")) {
+            forwardedRooms.put(sessionId, Integer.parseInt(message.substring(14)));
+        } else if (message.equals("LOBBY:")) {
+            forwardedRooms.remove(sessionId);
+        }
+    }
+
+    private void notifyOwnerOfDisconnect(int sessionId) {
+        int remoteRoomId;
+        synchronized (this) {
+            remoteRoomId = forwardedRooms.remove(sessionId);
+        }
+        if (remoteRoomId >= 0) {
+            sendToNode(router.ownerOf(remoteRoomId), sessionId, null, "SESSION_CLOSED");
+        }
+    }
+
+    public void dropRemoteSession(RemoteClientHandler proxy) {
+        sessions.remove(proxy.getSessionId(), proxy);
+    }
+
+    public RoomRouter getRouter() {
+        return router;
+    }
+
+    // 접속 수락 스레드에서 호출. 받아들이면 연결 수를 올린다 (ClientHandler가 끝날 때 connectionClosed로 내림).
+    private boolean admitConnection(Socket socket) throws IOException {
+        if (openConnections.get() >= MAX_CONNECTIONS || !acceptBucket.tryAcquire()) {
+            long refused = refusedConnections.incrementAndGet();
+            socket.close();
+            if (refused % 100 == 1) {
+                printDisplay("접속 제한으로 연결을 거절했습니다. (현재 " + openConnections.get() + "개, 누적 거절 " + refused + "건)");
             }
+            return false;
         }
-        return null;
+        openConnections.incrementAndGet();
+        return true;
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public long getRefusedConnections() {
+        return refusedConnections.get();
+    }
+
+    private synchronized Room findPlayerRoom(int sessionId) {
+        int roomId = playerRooms.get(sessionId);
+        return roomId < 0 ? null : rooms.get(roomId);
     }
 
     public void printDisplay(String message) {
-        SwingUtilities.invokeLater(() -> {
-            t_display.append(message + "\n");
-            t_display.setCaretPosition(t_display.getDocument().getLength());
-        });
+        log.log(message);
     }
 
+    public ServerLog getLog() {
+        return log;
+    }
+
+    // 사용 예: java server.QuizServer                  관리 창과 함께 실행 (서버 시작 버튼으로 시작)
+    //          java server.QuizServer --headless --port=9999   화면 없이 바로 시작, 로그는 표준 출력
+    //          java server.QuizServer --headless --metricsPort=9400   Prometheus 지표를 http://localhost:9400/metrics 로 내보냄
+    //          java server.QuizServer --headless --metricsPort=9400 --traceSampleEvery=100
+    //                                                  답변 100개마다 하나씩 단계별 지연을 추적, http://localhost:9400/traces 로 확인
+    // 화면이 없는 장비(java.awt.headless)에서는 --headless가 없어도 헤드리스로 실행한다.
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            new QuizServer(9999).setVisible(true);
-        });
+        int port = 9999;
+        int metricsPort = -1;
+        boolean headless = java.awt.GraphicsEnvironment.isHeadless();
+        for (String arg : args) {
+            if (arg.equals("--headless")) {
+                headless = true;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--metricsPort=")) {
+                metricsPort = Integer.parseInt(arg.substring("--metricsPort=".length()));
+            } else if (arg.startsWith("--traceSampleEvery=")) {
+                AnswerTracer.setSampleEvery(Integer.parseInt(arg.substring("--traceSampleEvery=".length())));
+            }
+        }
+
+        QuizServer server = new QuizServer(port);
+        if (metricsPort >= 0) {
+            server.setMetricsPort(metricsPort);
+        }
+        if (!headless) {
+            javax.swing.SwingUtilities.invokeLater(() -> new ServerConsole(server).setVisible(true));
+            return;
+        }
+        server.getLog().addSink(ServerLog.stdout());
+        if (!server.startServer()) {
+            server.getLog().close();
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.shutdownForRestart();
+            server.getLog().close();
+        }, "server-shutdown"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package server;
+
+import java.util.List;
+
+// 다른 노드에 접속한 플레이어를 방 담당 노드에서 대신하는 세션
+// 방 코드는 로컬 플레이어와 똑같이 send()를 부르고, 실제 전송은 플레이어가 접속한 노드로 넘긴다.
+public class RemoteClientHandler extends ClientHandler {
+    private final QuizServer server;
+    private final int homeNode;
+
+    public RemoteClientHandler(QuizServer server, int sessionId, String playerName, int homeNode) {
+        super(server, sessionId, playerName);
+        this.server = server;
+        this.homeNode = homeNode;
+    }
+
+    public int getHomeNode() {
+        return homeNode;
+    }
+
+    @Override
+    public void run() {
+        // 소켓이 없으므로 읽을 것이 없다
+    }
+
+    @Override
+    protected void deliver(String message, Delivery delivery) {
+        server.sendToNode(homeNode, getSessionId(), getPlayerName(), message);
+        if (message.equals("LOBBY:")) {
+            server.dropRemoteSession(this);     // 로비로 돌아가면 이 노드에서 할 일이 없다
+        }
+    }
+
+    // 봉투는 접속한 노드가 그대로 클라이언트에 넘긴다
+    @Override
+    protected void deliverBatch(List<String> messages, Delivery delivery) {
+        super.deliverBatch(messages, delivery);
+        if (messages.size() > 1 && messages.contains("LOBBY:")) {
+            server.dropRemoteSession(this);
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        server.removeClient(this);
+    }
+}
@@ -0,0 +1,64 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// 방 하나의 게임 상태를 한 번에 한 스레드만 건드리도록 하는 메일박스
+// 답변, 시간 종료, 퇴장, 가위바위보 결과 등을 이벤트로 받아 공용 스레드 풀에서 순서대로 처리한다.
+// 같은 방의 이벤트는 절대 동시에 실행되지 않으므로 GameManager 안에서는 락이 필요 없다.
+public class RoomActor {
+    private static final int BATCH_SIZE = 64;   // 한 번에 처리할 최대 이벤트 수 (다른 방에 스레드를 양보하기 위함)
+
+    private final String name;
+    private final Executor executor;
+    private final Consumer<String> log;     // 이벤트 처리 오류를 남길 곳 (서버는 printDisplay)
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public RoomActor(String name, Executor executor, Consumer<String> log) {
+        this.name = name;
+        this.executor = executor;
+        this.log = log;
+    }
+
+    public void tell(Runnable event) {
+        mailbox.offer(event);
+        trySchedule();
+    }
+
+    private void trySchedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable event = mailbox.poll();
+                if (event == null) {
+                    break;
+                }
+                // 이벤트 하나에서 나가는 메시지는 받는 사람마다 한 프레임으로 묶는다
+                MessageBatch.begin();
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    StackTraceElement[] trace = e.getStackTrace();
+                    log.accept("[" + name + "] 이벤트 처리 오류: " + e
+                            + (trace.length > 0 ? " (" + trace[0] + ")" : ""));
+                } finally {
+                    MessageBatch.flush();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                trySchedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package server;
+
+import model.Room;
+import model.RoomCheckpointDAO;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// 열린 방과 진행 중인 게임을 주기적으로 파일에 저장한다 (서버 재시작 시 QuizServer가 복원)
+// 게임 상태는 각 방 액터가 배열 복사본만 만들어 넘기고(짧은 시간), 인코딩과 파일 쓰기는 이 전용 스레드에서 한다.
+// 방당 캡처 시간과 쓰기 시간을 재서 주기를 조정할 수 있게 로그와 getLastStats()로 남긴다.
+public class RoomCheckpointer {
+    private static final long CAPTURE_TIMEOUT_MILLIS = 1000;
+    private static final int LOG_EVERY = 12;    // 기본 주기(5초)면 1분에 한 번 로그
+
+    private final QuizServer server;
+    private final RoomCheckpointDAO dao;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+    private int checkpointCount;
+    private boolean lastWasEmpty;
+    private volatile String lastStats = "아직 저장하지 않음";
+    private volatile long lastCaptureNanos;     // 마지막 체크포인트의 방 액터 캡처 시간 합계
+    private volatile long lastWriteNanos;       // 마지막 체크포인트의 인코딩 + 파일 쓰기 시간
+    private volatile int lastRoomCount;
+
+    public RoomCheckpointer(QuizServer server, RoomCheckpointDAO dao, long intervalMillis) {
+        this.server = server;
+        this.dao = dao;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "room-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                server.printDisplay("체크포인트 저장 오류: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // 지금 바로 저장한다 (서버 중지 시 등)
+    public void checkpointNow() {
+        try {
+            executor.submit(this::checkpoint).get(5, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            checkpoint();   // 이미 멈춘 경우 호출한 스레드에서
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            server.printDisplay("체크포인트 저장 오류: " + e.getMessage());
+        }
+    }
+
+    private synchronized void checkpoint() {
+        RoomCheckpointDAO.Checkpoint checkpoint = new RoomCheckpointDAO.Checkpoint();
+        checkpoint.savedAt = System.currentTimeMillis();
+        checkpoint.nextRoomSeq = server.getNextRoomSeq();
+        checkpoint.nextSessionSeq = server.getNextSessionSeq();
+        checkpoint.sessions.addAll(server.getResumableSessions());
+
+        // 1) 방 정보는 Room의 동기화된 getter로, 게임 상태는 방 액터에 복사를 요청해 모아 둔다
+        Map<RoomCheckpointDAO.RoomState, CompletableFuture<RoomCheckpointDAO.GameState>> pending = new LinkedHashMap<>();
+        for (Room room : server.getRooms()) {
+            RoomCheckpointDAO.RoomState state = new RoomCheckpointDAO.RoomState();
+            state.roomId = room.getRoomId();
+            state.roomName = room.getRoomName();
+            state.hostId = room.getHostId();
+            state.hostName = room.getHostName();
+            state.maxPlayers = room.getMaxPlayers();
+            state.category = room.getCategory().getKoreanName();
+            state.questionCount = room.getQuestionCount();
+            state.timePerQuestion = room.getTimePerQuestion();
+            state.gameStarted = room.isGameStarted();
+            state.playerIds = room.getPlayerIds();
+            state.playerNames = room.getPlayers().toArray(new String[0]);
+            checkpoint.rooms.add(state);
+
+            GameManager gameManager = server.getGameManager(room.getRoomId());
+            if (gameManager != null && gameManager.isGameInProgress()) {
+                pending.put(state, gameManager.snapshot());
+            }
+        }
+        if (checkpoint.rooms.isEmpty() && lastWasEmpty) {
+            return;     // 변화 없음
+        }
+
+        long captureNanos = 0;
+        long deadline = System.currentTimeMillis() + CAPTURE_TIMEOUT_MILLIS;
+        for (Map.Entry<RoomCheckpointDAO.RoomState, CompletableFuture<RoomCheckpointDAO.GameState>> entry : pending.entrySet()) {
+            try {
+                RoomCheckpointDAO.GameState game = entry.getValue()
+                        .get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                entry.getKey().game = game;
+                captureNanos += game.captureNanos;
+            } catch (TimeoutException | ExecutionException e) {
+                // 바쁜 방은 이번 체크포인트에서 게임 없이 방 정보만 저장한다
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        // 2) 인코딩과 쓰기
+        long writeStart = System.nanoTime();
+        long bytes;
+        try {
+            bytes = dao.save(checkpoint);
+        } catch (IOException e) {
+            server.printDisplay("체크포인트 저장 실패: " + e.getMessage());
+            return;
+        }
+        long writeNanos = System.nanoTime() - writeStart;
+
+        int roomCount = checkpoint.rooms.size();
+        lastWasEmpty = roomCount == 0;
+        lastRoomCount = roomCount;
+        lastCaptureNanos = captureNanos;
+        lastWriteNanos = writeNanos;
+        lastStats = String.format("방 %d개(게임 %d개), 방당 캡처 %.1fµs, 쓰기 %.2fms(방당 %.1fµs), %d바이트",
+                roomCount, pending.size(),
+                pending.isEmpty() ? 0.0 : captureNanos / 1000.0 / pending.size(),
+                writeNanos / 1_000_000.0, roomCount == 0 ? 0.0 : writeNanos / 1000.0 / roomCount, bytes);
+        if (checkpointCount++ % LOG_EVERY == 0 && roomCount > 0) {
+            server.printDisplay("체크포인트 저장: " + lastStats);
+        }
+    }
+
+    public String getLastStats() {
+        return lastStats;
+    }
+
+    public long getLastCaptureNanos() {
+        return lastCaptureNanos;
+    }
+
+    public long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    public int getLastRoomCount() {
+        return lastRoomCount;
+    }
+}
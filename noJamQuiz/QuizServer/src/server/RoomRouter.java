@@ -0,0 +1,64 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 방 id로 방을 담당하는 노드를 정한다
+// 방 id와 세션 id는 발급한 노드 번호를 나머지로 담고 있어서(id % 노드 수 = 노드 번호) 별도 디렉터리 없이
+// 방의 담당 노드와 플레이어가 접속한 노드를 알 수 있다. 노드가 하나면 id는 기존처럼 1, 2, 3 ...이다.
+public class RoomRouter {
+    private final int nodeId;
+    private final int nodeCount;
+    private final AtomicInteger placement = new AtomicInteger();
+
+    public RoomRouter(int nodeId, int nodeCount) {
+        if (nodeCount < 1 || nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException("잘못된 노드 설정입니다: " + nodeId + "/" + nodeCount);
+        }
+        this.nodeId = nodeId;
+        this.nodeCount = nodeCount;
+        this.placement.set(nodeId);
+    }
+
+    public static RoomRouter singleNode() {
+        return new RoomRouter(0, 1);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public boolean isSingleNode() {
+        return nodeCount == 1;
+    }
+
+    public int ownerOf(int roomId) {
+        return Math.floorMod(roomId, nodeCount);
+    }
+
+    // 세션을 발급한 노드 (= 플레이어의 소켓이 붙어 있는 노드)
+    public int homeOf(int sessionId) {
+        return Math.floorMod(sessionId, nodeCount);
+    }
+
+    public boolean isLocal(int node) {
+        return node == nodeId;
+    }
+
+    // 이 노드가 seq번째로 만드는 방의 id
+    public int roomId(int seq) {
+        return seq * nodeCount + nodeId;
+    }
+
+    public int sessionId(int seq) {
+        return seq * nodeCount + nodeId;
+    }
+
+    // 새 방을 만들 노드를 돌아가며 고른다
+    public int pickNodeForNewRoom() {
+        return Math.floorMod(placement.getAndIncrement(), nodeCount);
+    }
+}
@@ -0,0 +1,113 @@
+package server;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.*;
+import javax.swing.border.*;
+import javax.swing.text.BadLocationException;
+
+// 서버 관리 창 (선택 사항)
+// 서버 로그의 마지막 MAX_LINES줄만 보여준다. 로그 스레드가 모아 둔 줄을 EDT에 한 번에 넘기고,
+// 이전 갱신이 아직 처리되지 않았으면 새로 예약하지 않으므로 로그가 많아도 EDT 큐와 문서가 계속 커지지 않는다.
+public class ServerConsole extends JFrame implements ServerLog.Sink {
+    private static final int MAX_LINES = 1000;
+
+    private final QuizServer server;
+    private final ArrayDeque<String> pending = new ArrayDeque<>();     // this로 동기화
+    private final AtomicBoolean updateScheduled = new AtomicBoolean(false);
+
+    private JTextArea t_display;
+    private JButton b_connect;
+    private JButton b_disconnect;
+    private JButton b_exit;
+
+    public ServerConsole(QuizServer server) {
+        this.server = server;
+        buildGUI();
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        server.getLog().addSink(this);
+    }
+
+    private void buildGUI() {
+        setTitle("퀴즈 게임 서버");
+        setSize(500, 600);
+        setLayout(new BorderLayout(5, 5));
+
+        t_display = new JTextArea();
+        t_display.setEditable(false);
+        t_display.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
+        JScrollPane scrollPane = new JScrollPane(t_display);
+        scrollPane.setBorder(new CompoundBorder(
+                new TitledBorder("서버 로그"),
+                new EmptyBorder(5, 5, 5, 5)));
+        add(scrollPane, BorderLayout.CENTER);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+        controlPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
+
+        b_connect = new JButton("서버 시작");
+        b_disconnect = new JButton("서버 중지");
+        b_exit = new JButton("종료");
+
+        b_connect.addActionListener(e -> {
+            if (server.startServer()) {
+                b_connect.setEnabled(false);
+                b_disconnect.setEnabled(true);
+            }
+        });
+        b_disconnect.addActionListener(e -> {
+            server.stopServer();
+            b_connect.setEnabled(true);
+            b_disconnect.setEnabled(false);
+        });
+        b_exit.addActionListener(e -> System.exit(0));
+
+        controlPanel.add(b_connect);
+        controlPanel.add(b_disconnect);
+        controlPanel.add(b_exit);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        setLocationRelativeTo(null);
+    }
+
+    // 로그 스레드에서 호출
+    @Override
+    public synchronized void write(String line) {
+        pending.addLast(line);
+        if (pending.size() > MAX_LINES) {
+            pending.removeFirst();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (updateScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::appendPending);
+        }
+    }
+
+    private void appendPending() {
+        updateScheduled.set(false);
+        StringBuilder text = new StringBuilder();
+        synchronized (this) {
+            for (String line : pending) {
+                text.append(line).append('\n');
+            }
+            pending.clear();
+        }
+        if (text.length() == 0) {
+            return;
+        }
+        t_display.append(text.toString());
+        int excess = t_display.getLineCount() - 1 - MAX_LINES;
+        if (excess > 0) {
+            try {
+                t_display.replaceRange("", 0, t_display.getLineEndOffset(excess - 1));
+            } catch (BadLocationException e) {
+                t_display.setText("");
+            }
+        }
+        t_display.setCaretPosition(t_display.getDocument().getLength());
+    }
+}
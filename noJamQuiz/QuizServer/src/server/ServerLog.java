@@ -0,0 +1,146 @@
+package server;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// 서버 로그 창구
+// 게임 스레드는 미리 만들어 둔 링 버퍼 칸에 메시지와 시각만 넣고 바로 돌아간다 (락, 화면 갱신, 출력 없음).
+// 로그 스레드 하나가 버퍼를 비우면서 등록된 출력(Sink)에 묶어서 넘긴다. 버퍼가 가득 차면 기다리지 않고 버리며 개수만 센다.
+public class ServerLog {
+    private static final long IDLE_PARK_NANOS = 5_000_000;     // 비어 있을 때 5ms씩 쉰다
+
+    // 로그를 받아 가는 쪽 (콘솔, Swing 화면 등). 로그 스레드에서만 호출된다.
+    public interface Sink {
+        void write(String line);
+
+        // 한 번 비울 때마다 마지막에 호출된다
+        default void flush() {
+        }
+    }
+
+    private final int mask;
+    private final String[] messages;
+    private final long[] times;
+    private final AtomicLongArray published;    // 칸마다 마지막으로 다 쓴 순번 (+1)
+    private final AtomicLong tail = new AtomicLong();   // 다음에 쓸 순번
+    private volatile long head;                 // 다음에 읽을 순번 (로그 스레드만 씀)
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Sink> sinks = new CopyOnWriteArrayList<>();
+    private final Thread drainThread;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity 버퍼 칸 수 (2의 거듭제곱으로 올림)
+     */
+    public ServerLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.messages = new String[size];
+        this.times = new long[size];
+        this.published = new AtomicLongArray(size);
+        this.drainThread = new Thread(this::drainLoop, "server-log");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    public void addSink(Sink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(Sink sink) {
+        sinks.remove(sink);
+    }
+
+    public void log(String message) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head > mask) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        int index = (int) (seq & mask);
+        messages[index] = message;
+        times[index] = System.currentTimeMillis();
+        published.set(index, seq + 1);
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // 남은 로그를 모두 내보내고 로그 스레드를 멈춘다
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+        Date date = new Date();
+        long reportedDrops = 0;
+        while (true) {
+            int count = 0;
+            long seq = head;
+            while (published.get((int) (seq & mask)) == seq + 1) {
+                int index = (int) (seq & mask);
+                date.setTime(times[index]);
+                String line = format.format(date) + " " + messages[index];
+                messages[index] = null;
+                head = ++seq;
+                for (Sink sink : sinks) {
+                    sink.write(line);
+                }
+                count++;
+            }
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                String line = "로그 버퍼가 가득 차 " + (drops - reportedDrops) + "건을 버렸습니다.";
+                reportedDrops = drops;
+                for (Sink sink : sinks) {
+                    sink.write(line);
+                }
+                count++;
+            }
+            if (count > 0) {
+                for (Sink sink : sinks) {
+                    sink.flush();
+                }
+            } else if (!running) {
+                return;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // 표준 출력으로 내보낸다 (헤드리스 서버)
+    public static Sink stdout() {
+        return new Sink() {
+            private final StringBuilder buffer = new StringBuilder();
+
+            @Override
+            public void write(String line) {
+                buffer.append(line).append('\n');
+            }
+
+            @Override
+            public void flush() {
+                System.out.print(buffer);
+                System.out.flush();
+                buffer.setLength(0);
+            }
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package server;
+
+import java.io.*;
+import java.util.Arrays;
+
+// 서버 곳곳에서 기록하는 지표 (MetricsRegistry.DEFAULT에 등록)
+// 기록하는 쪽은 필드를 바로 쓰므로 이름 조회나 맵 검색이 없다.
+// 방 수처럼 서버 인스턴스가 들고 있는 값은 QuizServer가 시작할 때 게이지로 따로 등록한다.
+public final class ServerMetrics {
+    private static final MetricsRegistry registry = MetricsRegistry.DEFAULT;
+
+    // ClientHandler: 소켓 단위 바이트와 종류별 메시지 수
+    public static final MetricsRegistry.Counter BYTES_IN = registry.counter(
+            "quiz_bytes_in_total", "클라이언트 소켓에서 읽은 바이트 수");
+    public static final MetricsRegistry.Counter BYTES_OUT = registry.counter(
+            "quiz_bytes_out_total", "클라이언트 소켓에 쓴 바이트 수");
+    private static final MetricsRegistry.Counter[] MESSAGES_IN = new MetricsRegistry.Counter[Opcode.values().length];
+    private static final MetricsRegistry.Counter[] MESSAGES_OUT = new MetricsRegistry.Counter[OutboundType.values().length];
+
+    static {
+        for (Opcode opcode : Opcode.values()) {
+            MESSAGES_IN[opcode.ordinal()] = registry.counter(
+                    "quiz_messages_in_total", "클라이언트가 보낸 메시지 수 (종류별)", "type", opcode.name());
+        }
+        for (OutboundType type : OutboundType.values()) {
+            MESSAGES_OUT[type.ordinal()] = registry.counter(
+                    "quiz_messages_out_total", "클라이언트에게 보낸 메시지 수 (종류별, BATCH로 묶기 전 기준)", "type", type.name());
+        }
+    }
+
+    // QuizServer: 방/세션 등록부 작업 시간
+    public static final MetricsRegistry.Histogram REGISTER_SESSION = registryOp("register_session");
+    public static final MetricsRegistry.Histogram CREATE_ROOM = registryOp("create_room");
+    public static final MetricsRegistry.Histogram JOIN_ROOM = registryOp("join_room");
+    public static final MetricsRegistry.Histogram LEAVE_ROOM = registryOp("leave_room");
+
+    // GameManager
+    public static final MetricsRegistry.Histogram QUESTION_DURATION = registry.histogram(
+            "quiz_question_duration_seconds", "문제를 낸 뒤 시간 종료나 전원 답변으로 끝날 때까지 걸린 시간");
+    public static final MetricsRegistry.Histogram ANSWER_LATENCY = registry.histogram(
+            "quiz_answer_latency_seconds", "답변을 방 메일박스에 넣은 뒤 채점이 끝날 때까지 걸린 시간 (메일박스 대기 포함)");
+    public static final MetricsRegistry.Histogram TIMER_DRIFT = registry.histogram(
+            "quiz_timer_drift_seconds", "문제 마감 시각보다 시간 종료 처리가 늦은 정도");
+
+    // GPTConnector
+    public static final MetricsRegistry.Histogram GPT_REQUEST_OK = registry.histogram(
+            "quiz_gpt_request_seconds", "GPT 퀴즈 요청 시간", "outcome", "ok");
+    public static final MetricsRegistry.Histogram GPT_REQUEST_FAILED = registry.histogram(
+            "quiz_gpt_request_seconds", "GPT 퀴즈 요청 시간", "outcome", "failed");
+    public static final MetricsRegistry.Counter GPT_HTTP_ERRORS = gptFailure("http_status");
+    public static final MetricsRegistry.Counter GPT_EXCEPTIONS = gptFailure("exception");
+    public static final MetricsRegistry.Counter GPT_BLOCKED = gptFailure("circuit_open");
+
+    static {
+        // 다른 클래스가 이미 세고 있는 누적값
+        registry.counterFunction("quiz_outbox_dropped_total", "송신 버퍼가 밀려 버린 메시지 수", SessionOutbox::getDroppedTotal);
+        registry.counterFunction("quiz_outbox_conflated_total", "송신 버퍼에서 최신 값으로 덮어쓴 메시지 수", SessionOutbox::getConflatedTotal);
+        registry.counterFunction("quiz_outbox_evicted_total", "송신 버퍼 초과로 끊은 세션 수", SessionOutbox::getEvictedTotal);
+        registry.counterFunction("quiz_inbound_rejected_total", "속도 제한으로 거절한 메시지 수", InboundLimiter::getRejectedTotal);
+        registry.counterFunction("quiz_inbound_disconnected_total", "속도 제한을 계속 넘어 끊은 세션 수", InboundLimiter::getDisconnectedTotal);
+    }
+
+    private ServerMetrics() {
+    }
+
+    // 클래스를 불러 위의 지표가 처음 기록되기 전에도 /metrics 에 0으로 보이게 한다
+    static void ensureRegistered() {
+    }
+
+    private static MetricsRegistry.Histogram registryOp(String op) {
+        return registry.histogram("quiz_registry_op_seconds", "방/세션 등록부 작업 시간 (락 대기 포함)", "op", op);
+    }
+
+    private static MetricsRegistry.Counter gptFailure(String reason) {
+        return registry.counter("quiz_gpt_failures_total", "GPT 퀴즈 요청 실패 수 (원인별)", "reason", reason);
+    }
+
+    static void messageIn(Opcode opcode) {
+        MESSAGES_IN[opcode.ordinal()].inc();
+    }
+
+    // 소켓으로 나가는 쪽(ClientHandler.deliver)에서만 센다. 대리 세션의 메시지는 플레이어가 접속한 노드가 센다.
+    // BATCH 봉투는 안에 든 메시지마다 한 번씩 센다.
+    static void messageOut(String message) {
+        if (message.startsWith(MessageBatch.PREFIX)) {
+            countBatch(message);
+        } else {
+            MESSAGES_OUT[OutboundType.of(message, 0, message.length()).ordinal()].inc();
+        }
+    }
+
+    // BATCH:<개수>\n<길이>:<메시지>... 를 길이만 따라가며 센다. 형식이 깨졌으면 남은 부분은 TEXT 하나로 센다.
+    private static void countBatch(String batch) {
+        int pos = batch.indexOf('\n') + 1;
+        while (pos > 0 && pos < batch.length()) {
+            int colon = batch.indexOf(':', pos);
+            int length;
+            try {
+                length = Integer.parseInt(batch, pos, colon, 10);
+            } catch (RuntimeException e) {
+                break;
+            }
+            int start = colon + 1;
+            int end = start + length;
+            if (length < 0 || end > batch.length()) {
+                break;
+            }
+            MESSAGES_OUT[OutboundType.of(batch, start, end).ordinal()].inc();
+            pos = end;
+        }
+        if (pos <= 0 || pos < batch.length()) {
+            MESSAGES_OUT[OutboundType.TEXT.ordinal()].inc();
+        }
+    }
+
+    static long since(long startNanos) {
+        return System.nanoTime() - startNanos;
+    }
+
+    static InputStream countingInput(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    BYTES_IN.inc();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    BYTES_IN.add(n);
+                }
+                return n;
+            }
+        };
+    }
+
+    static OutputStream countingOutput(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                BYTES_OUT.inc();
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);     // FilterOutputStream 기본 구현은 1바이트씩 쓴다
+                BYTES_OUT.add(length);
+            }
+        };
+    }
+
+    // 서버가 보내는 메시지 종류 (클라이언트 MessageType과 같은 토큰). 방 메시지 접두어 "[방 n] "는 건너뛴다.
+    enum OutboundType {
+        ROOM_LIST("ROOM_LIST:"),
+        JOIN_ROOM("JOIN_ROOM:"),
+        SPECTATE_JOIN("SPECTATE_JOIN:"),
+        SPECTATE("SPECTATE:"),
+        LOBBY("LOBBY:"),
+        SESSION("SESSION:"),
+        RESUMED("RESUMED:"),
+        RESUME_FAILED("RESUME_FAILED:"),
+        RPS_START("RPS_START:"),
+        GAME_END("GAME_END:"),
+        SELECT_MODE("SELECT_MODE"),
+        QUIZ("QUIZ:"),
+        SCORE("SCORE:"),
+        TEXT(null);
+
+        private static final OutboundType[][] BY_FIRST_CHAR = new OutboundType[128][];
+
+        static {
+            for (OutboundType type : values()) {
+                if (type.token != null) {
+                    char first = type.token.charAt(0);
+                    OutboundType[] list = BY_FIRST_CHAR[first];
+                    list = list == null ? new OutboundType[1] : Arrays.copyOf(list, list.length + 1);
+                    list[list.length - 1] = type;
+                    BY_FIRST_CHAR[first] = list;
+                }
+            }
+        }
+
+        private final String token;
+
+        OutboundType(String token) {
+            this.token = token;
+        }
+
+        // message의 [start, end) 구간을 메시지 하나로 본다 (BATCH 봉투 안의 메시지도 복사 없이 판별)
+        static OutboundType of(String message, int start, int end) {
+            if (message.startsWith("[방 ", start)) {
+                int close = message.indexOf("] ", start);
+                if (close < 0 || close + 2 > end) {
+                    return TEXT;
+                }
+                start = close + 2;
+            }
+            if (start >= end || message.charAt(start) >= BY_FIRST_CHAR.length) {
+                return TEXT;
+            }
+            OutboundType[] candidates = BY_FIRST_CHAR[message.charAt(start)];
+            if (candidates != null) {
+                for (OutboundType type : candidates) {
+                    if (start + type.token.length() <= end && message.startsWith(type.token, start)
+                            && (type.token.charAt(type.token.length() - 1) == ':' || end == start + type.token.length())) {
+                        return type;
+                    }
+                }
+            }
+            return TEXT;
+        }
+    }
+}
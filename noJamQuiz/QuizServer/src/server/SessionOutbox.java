@@ -0,0 +1,255 @@
+package server;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 세션 하나의 송신 창구
+// 보낸 메시지를 최근 CAPACITY개까지 링 버퍼에 순번과 함께 남겨 두었다가, 연결이 잠깐 끊겼다 다시 붙으면
+// 클라이언트가 받은 개수 이후의 메시지만 다시 보낸다. 연결이 끊긴 동안(grace 기간)에도 메시지는 계속 쌓인다.
+//
+// 소켓 쓰기는 세션마다 하나인 송신 스레드만 한다. send()는 링 버퍼에 넣고 돌아가므로,
+// 네트워크가 느린 클라이언트가 있어도 방송하는 쪽(방 타이머, 다른 플레이어의 핸들러, 접속 처리)은 기다리지 않는다.
+// 못 보내고 쌓인 메시지가 SOFT_LIMIT를 넘으면 중요하지 않은 메시지는 버리거나 최신 값으로 덮어쓰고,
+// HARD_LIMIT를 넘으면 느린 클라이언트로 보고 연결을 끊는다.
+public class SessionOutbox {
+    private static final int CAPACITY = 512;
+    static final int SOFT_LIMIT = 64;
+    static final int HARD_LIMIT = 384;
+
+    // 모든 세션 누적
+    private static final AtomicLong droppedTotal = new AtomicLong();
+    private static final AtomicLong conflatedTotal = new AtomicLong();
+    private static final AtomicLong evictedTotal = new AtomicLong();
+
+    private final String[] ring = new String[CAPACITY];
+    private final String[] keys = new String[CAPACITY];    // 덮어쓰기용 키 (없으면 null)
+    private long sentCount;                 // 지금까지 이 세션에 넣은 메시지 수 (= 다음 메시지의 순번)
+    private long writtenCount;              // 소켓에 쓴 메시지 수
+    private long inFlightEnd;               // 송신 스레드가 지금 쓰고 있는 묶음의 끝 순번
+    private String control;                 // 다음에 먼저 보낼 기록하지 않는 메시지 (RESUMED)
+    private ObjectOutputStream out;         // null이면 연결이 끊긴 상태
+    private ClientHandler owner;            // 쓰기 실패나 초과를 알릴 현재 연결
+    private Thread writer;
+    private boolean evicted;
+    private AnswerTrace trace;              // 답변 추적 표본: 결과 프레임이 소켓에 쓰일 때 끝낸다
+    private long traceSeq = -1;             // 그 프레임의 순번 (-1이면 아직 들어오지 않음)
+
+    public SessionOutbox(ObjectOutputStream out, ClientHandler owner) {
+        this.out = out;
+        this.owner = owner;
+    }
+
+    public synchronized void send(String message, Delivery delivery) {
+        if (evicted) {
+            return;
+        }
+        int backlog = (int) (sentCount - writtenCount);
+        if (out != null && backlog >= SOFT_LIMIT && delivery.isDroppable()) {
+            if (delivery.getConflationKey() == null) {
+                droppedTotal.incrementAndGet();
+                return;
+            }
+            if (replacePending(delivery.getConflationKey(), message)) {
+                conflatedTotal.incrementAndGet();
+                return;
+            }
+        }
+        if (out != null && backlog >= HARD_LIMIT) {
+            // 연결이 끊긴 동안은 재접속을 기다리며 쌓기만 한다 (버퍼에서 밀려나면 재접속이 실패할 뿐)
+            evicted = true;
+            evictedTotal.incrementAndGet();
+            owner.outboxOverflowed();
+            return;
+        }
+        int index = (int) (sentCount % CAPACITY);
+        ring[index] = message;
+        keys[index] = delivery.getConflationKey();
+        if (trace != null && traceSeq < 0) {
+            traceSeq = sentCount;
+            trace.mark(AnswerTrace.Stage.QUEUED);
+        }
+        sentCount++;
+        if (out != null) {
+            startWriter();
+            notifyAll();
+        }
+    }
+
+    // 아직 쓰기 시작하지 않은 같은 키의 메시지를 새 내용으로 바꾼다
+    private boolean replacePending(String key, String message) {
+        for (long seq = sentCount - 1; seq >= Math.max(writtenCount, inFlightEnd); seq--) {
+            int index = (int) (seq % CAPACITY);
+            if (key.equals(keys[index])) {
+                ring[index] = message;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void startWriter() {
+        if (writer == null) {
+            writer = new Thread(this::writeLoop, "session-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    // 쌓인 메시지를 한 번에 가져가 쓰고 한 번만 flush한다. 소켓이 막혀 있어도 기다리는 것은 이 스레드뿐이다.
+    private void writeLoop() {
+        String[] batch = new String[HARD_LIMIT + 1];
+        while (true) {
+            ObjectOutputStream stream;
+            String first;
+            long start;
+            int count;
+            synchronized (this) {
+                while (out != null && control == null && writtenCount == sentCount) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        writer = null;
+                        return;
+                    }
+                }
+                if (out == null) {
+                    writer = null;
+                    return;
+                }
+                stream = out;
+                first = control;
+                control = null;
+                start = writtenCount;
+                count = (int) Math.min(batch.length, sentCount - writtenCount);
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ring[(int) ((start + i) % CAPACITY)];
+                }
+                inFlightEnd = start + count;
+            }
+
+            boolean ok = true;
+            try {
+                if (first != null) {
+                    stream.writeObject(first);
+                }
+                for (int i = 0; i < count; i++) {
+                    stream.writeObject(batch[i]);
+                    batch[i] = null;
+                }
+                // 보낸 문자열을 스트림의 참조 표에서 비운다. 안 하면 세션이 끝날 때까지 보낸 메시지가 모두
+                // 서버와 클라이언트(ObjectInputStream) 양쪽 메모리에 남는다.
+                stream.reset();
+                stream.flush();
+            } catch (IOException e) {
+                ok = false;
+            }
+
+            ClientHandler failed = null;
+            AnswerTrace written = null;
+            synchronized (this) {
+                if (out == stream) {
+                    if (ok) {
+                        writtenCount = start + count;
+                        if (trace != null && traceSeq >= 0 && traceSeq < writtenCount) {
+                            written = trace;
+                            trace = null;
+                        }
+                    } else {
+                        out = null;
+                        failed = owner;
+                    }
+                }
+                // 도중에 재접속으로 스트림이 바뀌었으면 attach가 정한 위치부터 다시 쓴다
+            }
+            if (written != null) {
+                written.mark(AnswerTrace.Stage.WRITTEN);
+                AnswerTracer.finish(written);
+            }
+            if (failed != null) {
+                failed.outboxWriteFailed();
+            }
+        }
+    }
+
+    // 앞의 추적이 아직 안 끝났으면 (결과 프레임이 밀려 있는 경우) 거기까지만 기록하고 새 것으로 바꾼다
+    synchronized void traceNextWrite(AnswerTrace next) {
+        if (trace != null) {
+            AnswerTracer.finish(trace);
+        }
+        trace = next;
+        traceSeq = -1;
+    }
+
+    public synchronized void detach() {
+        out = null;
+        control = null;
+        notifyAll();
+    }
+
+    public synchronized boolean isAttached() {
+        return out != null;
+    }
+
+    /**
+     * 새 연결을 붙이고 클라이언트가 받지 못한 메시지를 다시 보낸다.
+     * 먼저 "RESUMED:<받은 개수>"를 보내고(버퍼에는 남기지 않음) 그 뒤로 빠진 메시지를 순서대로 보낸다.
+     * @param receivedCount 클라이언트가 이 세션에서 받은 메시지 수
+     * @return 빠진 메시지가 이미 버퍼에서 밀려났으면 false (처음부터 다시 접속해야 함)
+     */
+    public synchronized boolean attach(ObjectOutputStream newOut, long receivedCount, ClientHandler newOwner) {
+        long oldest = Math.max(0, sentCount - CAPACITY);
+        if (evicted || receivedCount < oldest || receivedCount > sentCount) {
+            return false;
+        }
+        out = newOut;
+        owner = newOwner;
+        control = "RESUMED:" + receivedCount;
+        writtenCount = receivedCount;
+        inFlightEnd = receivedCount;
+        startWriter();
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * 이전 기록 없이 순번만 receivedCount부터 다시 시작한다 (서버 재시작으로 버퍼가 없어진 세션).
+     * "RESUMED:<receivedCount>"를 보내며, 이 메시지는 버퍼에 남기지 않는다.
+     */
+    public synchronized boolean restartAt(long receivedCount) {
+        if (out == null) {
+            return false;
+        }
+        Arrays.fill(ring, null);
+        Arrays.fill(keys, null);
+        sentCount = receivedCount;
+        writtenCount = receivedCount;
+        inFlightEnd = receivedCount;
+        control = "RESUMED:" + receivedCount;
+        startWriter();
+        notifyAll();
+        return true;
+    }
+
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    // 아직 소켓에 쓰지 못한 메시지 수
+    public synchronized int getBacklog() {
+        return (int) (sentCount - writtenCount);
+    }
+
+    public static long getDroppedTotal() {
+        return droppedTotal.get();
+    }
+
+    public static long getConflatedTotal() {
+        return conflatedTotal.get();
+    }
+
+    public static long getEvictedTotal() {
+        return evictedTotal.get();
+    }
+}
@@ -0,0 +1,153 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 방 하나의 관전자 피드
+// 게임(방 액터)은 문제, 마감 시각, 순위, 결과 같은 상태 값만 publish하고,
+// 관전자 전송은 관전 전용 스레드가 주기(tick)마다 바뀐 값만 모아 한 번 인코딩해서 모두에게 같은 문자열을 보낸다.
+// 새 관전자는 현재 상태 전체(스냅샷)를 먼저 받고, 이후에는 변경분(델타)만 받는다.
+//
+// 메시지 형식: SPECTATE:<S|D>:<서버시각>\n키=값\n키=값 ... (값의 역슬래시와 줄바꿈은 이스케이프)
+public class SpectatorFeed {
+    public static final String QUESTION = "question";   // "3/10\n문제 내용"
+    public static final String DEADLINE = "deadline";   // 현재 문제 마감 시각 (서버 시계, epoch ms)
+    public static final String STANDINGS = "standings";
+    public static final String STATUS = "status";       // 답변 현황, 시간 종료 결과 등 한 줄 상태
+    public static final String RESULT = "result";       // 최종 결과
+
+    private static final int SNAPSHOT_EVERY_TICKS = 20; // 변경이 없어도 이 주기로 스냅샷을 다시 보내 늦게 붙은 화면도 맞춘다
+    private static final Delivery SNAPSHOT_DELIVERY = Delivery.latest("SPECTATE");
+
+    private final QuizServer server;
+    private final int roomId;
+    private final Set<Integer> spectators = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> state = new LinkedHashMap<>();      // 현재 전체 상태
+    private final Map<String, String> pending = new LinkedHashMap<>();    // 마지막 tick 이후 바뀐 값
+    private String snapshotCache;       // state가 바뀌기 전까지 재사용하는 스냅샷 인코딩
+    private int ticks;
+    // 순위는 정답마다 바뀌므로 표시만 해두고, 관전자가 있을 때 tick마다 한 번만 다시 계산하게 한다
+    private volatile boolean standingsStale;
+    private volatile Runnable standingsRefresher;
+
+    public SpectatorFeed(QuizServer server, int roomId) {
+        this.server = server;
+        this.roomId = roomId;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    public boolean hasSpectators() {
+        return !spectators.isEmpty();
+    }
+
+    // 게임 쪽에서 호출. 같은 값이면 아무것도 하지 않는다.
+    public synchronized void publish(String key, String value) {
+        if (value == null) {
+            value = "";
+        }
+        if (value.equals(state.get(key))) {
+            return;
+        }
+        state.put(key, value);
+        pending.put(key, value);
+        snapshotCache = null;
+    }
+
+    public synchronized void clear() {
+        state.clear();
+        pending.clear();
+        snapshotCache = null;
+    }
+
+    public void setStandingsRefresher(Runnable standingsRefresher) {
+        this.standingsRefresher = standingsRefresher;
+    }
+
+    public void markStandingsStale() {
+        standingsStale = true;
+    }
+
+    public void addSpectator(int sessionId) {
+        spectators.add(sessionId);
+        String snapshot;
+        synchronized (this) {
+            snapshot = snapshot();
+        }
+        server.sendToSession(sessionId, snapshot);
+    }
+
+    public boolean removeSpectator(int sessionId) {
+        return spectators.remove(sessionId);
+    }
+
+    public Set<Integer> getSpectators() {
+        return spectators;
+    }
+
+    // 관전 스레드에서 주기적으로 호출된다
+    public void tick() {
+        if (spectators.isEmpty()) {
+            return;
+        }
+        Runnable refresher = standingsRefresher;
+        if (standingsStale && refresher != null) {
+            standingsStale = false;
+            refresher.run();    // 다음 tick에 반영된다
+        }
+
+        String message;
+        Delivery delivery;
+        synchronized (this) {
+            ticks++;
+            if (ticks % SNAPSHOT_EVERY_TICKS == 0) {
+                pending.clear();
+                message = snapshot();
+                delivery = SNAPSHOT_DELIVERY;
+            } else if (!pending.isEmpty()) {
+                message = encode("D", pending);
+                pending.clear();
+                delivery = Delivery.DROPPABLE;  // 수신이 밀린 관전자는 다음 전체 상태로 따라잡는다
+            } else {
+                return;
+            }
+        }
+        for (int sessionId : spectators) {
+            server.sendToSession(sessionId, message, delivery);
+        }
+    }
+
+    private String snapshot() {
+        if (snapshotCache == null) {
+            snapshotCache = encode("S", state);
+        }
+        return snapshotCache;
+    }
+
+    private static String encode(String kind, Map<String, String> values) {
+        StringBuilder sb = new StringBuilder("SPECTATE:").append(kind).append(':').append(System.currentTimeMillis());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            sb.append('\n').append(entry.getKey()).append('=');
+            String value = entry.getValue();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\') {
+                    sb.append("\\\\");
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package server;
+
+// 토큰 버킷: 초당 ratePerSecond개씩 채워지고 최대 burst개까지 모인다
+// 세션별 버킷은 그 세션의 읽기 스레드만 쓰지만, 접속 수락처럼 여러 곳에서 쓸 수도 있어 동기화해 둔다.
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        this.capacity = burst;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
@@ -0,0 +1,171 @@
+package tools;
+
+import server.LocalNodeTransport;
+import server.RoomActor;
+import server.RoomRouter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+// 노드 수를 늘렸을 때 동시에 돌릴 수 있는 방 수가 어떻게 늘어나는지 보는 시뮬레이션
+// 서버와 같은 RoomRouter / LocalNodeTransport / RoomActor 경로를 그대로 쓴다:
+// 플레이어 답변은 접속한(홈) 노드에서 방 담당 노드로 전달되고, 담당 노드의 방 액터가 처리한다.
+//
+// 한 JVM 안에서는 노드들이 CPU를 나눠 쓰므로, 노드 한 대의 처리 능력은 "노드 전용 스레드 수 × 이벤트당 처리 시간"으로
+// 모델링한다 (처리 시간은 CPU를 쓰지 않고 대기). 그래서 결과는 노드 사이 라우팅과 방 배치가 병목이 되는지를 보여주며,
+// 실제 장비의 CPU 한계를 재는 것은 아니다.
+//
+// 방 수를 단계적으로 늘리면서 p99 처리 지연이 --slo 안에 드는 최대 방 수를 노드 수별로 출력한다.
+// 사용 예: java tools.ClusterSimulation --nodes=1,2,4 --players=8 --answersPerSec=1 --serviceMicros=2000
+//          --threadsPerNode=1 --step=8 --stepMillis=1500 --slo=200
+public class ClusterSimulation {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int[] nodeCounts = Arrays.stream(options.getOrDefault("nodes", "1,2,4").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int players = Integer.parseInt(options.getOrDefault("players", "8"));
+        double answersPerSec = Double.parseDouble(options.getOrDefault("answersPerSec", "1"));
+        long serviceMicros = Long.parseLong(options.getOrDefault("serviceMicros", "2000"));
+        int threadsPerNode = Integer.parseInt(options.getOrDefault("threadsPerNode", "1"));
+        int step = Integer.parseInt(options.getOrDefault("step", "8"));
+        long stepMillis = Long.parseLong(options.getOrDefault("stepMillis", "1500"));
+        long sloMillis = Long.parseLong(options.getOrDefault("slo", "200"));
+
+        System.out.printf("players/room=%d answers/s/player=%.1f service=%dus threads/node=%d slo(p99)=%dms%n",
+                players, answersPerSec, serviceMicros, threadsPerNode, sloMillis);
+        System.out.println("nodes | max rooms | per node | p99 at max (ms) | node msgs (scale)");
+
+        int baseline = 0;
+        for (int nodes : nodeCounts) {
+            Cluster cluster = new Cluster(nodes, threadsPerNode, serviceMicros);
+            int maxRooms = 0;
+            double p99AtMax = 0;
+            for (int rooms = step; ; rooms += step) {
+                double p99 = cluster.run(rooms, players, answersPerSec, stepMillis);
+                if (p99 > sloMillis) {
+                    break;
+                }
+                maxRooms = rooms;
+                p99AtMax = p99;
+            }
+            if (baseline == 0) {
+                baseline = Math.max(1, maxRooms);
+            }
+            System.out.printf("%5d | %9d | %8.1f | %15.1f | %d (x%.2f vs 1 node)%n",
+                    nodes, maxRooms, maxRooms / (double) nodes, p99AtMax,
+                    cluster.transport.getDeliveredCount(), maxRooms / (double) baseline);
+            cluster.shutdown();
+        }
+    }
+
+    // 노드 N개: 노드마다 전용 실행기(= 장비 한 대), 라우터, 방 액터 목록
+    private static class Cluster {
+        final int nodes;
+        final long serviceNanos;
+        final ExecutorService transportExecutor;
+        final LocalNodeTransport transport;
+        final ExecutorService[] nodeExecutors;
+        final RoomRouter[] routers;
+        final Map<Integer, RoomActor> rooms = new ConcurrentHashMap<>();
+        final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        final Random random = new Random(42);
+
+        Cluster(int nodes, int threadsPerNode, long serviceMicros) {
+            this.nodes = nodes;
+            this.serviceNanos = serviceMicros * 1000;
+            this.transportExecutor = Executors.newFixedThreadPool(nodes, daemon("transport"));
+            this.transport = new LocalNodeTransport(transportExecutor, System.out::println);
+            this.nodeExecutors = new ExecutorService[nodes];
+            this.routers = new RoomRouter[nodes];
+            for (int node = 0; node < nodes; node++) {
+                nodeExecutors[node] = Executors.newFixedThreadPool(threadsPerNode, daemon("node-" + node));
+                routers[node] = new RoomRouter(node, nodes);
+                transport.register(node, (fromNode, roomId, playerName, message) -> deliver(roomId, message));
+            }
+        }
+
+        // 방 id를 노드마다 돌아가며 발급해서 방이 노드에 고르게 나뉘도록 한다 (서버의 pickNodeForNewRoom과 같은 방식)
+        void ensureRooms(int count) {
+            for (int i = rooms.size(); i < count; i++) {
+                int owner = i % nodes;
+                int roomId = routers[owner].roomId(i / nodes + 1);
+                rooms.put(roomId, new RoomActor("방 " + roomId, nodeExecutors[owner], System.out::println));
+            }
+        }
+
+        double run(int roomCount, int players, double answersPerSec, long durationMillis) throws InterruptedException {
+            ensureRooms(roomCount);
+            latencies.clear();
+            List<Integer> roomIds = new ArrayList<>(rooms.keySet());
+            Collections.sort(roomIds);
+            roomIds = roomIds.subList(0, roomCount);
+
+            // 10ms마다 기대 답변 수만큼 보낸다 (소수점 이하는 누적)
+            double perTick = roomCount * players * answersPerSec / 100.0;
+            double carry = 0;
+            long end = System.nanoTime() + durationMillis * 1_000_000L;
+            long nextTick = System.nanoTime();
+            while (System.nanoTime() < end) {
+                carry += perTick;
+                while (carry >= 1) {
+                    carry--;
+                    int roomId = roomIds.get(random.nextInt(roomIds.size()));
+                    int homeNode = random.nextInt(nodes);     // 플레이어는 아무 노드에나 접속해 있다
+                    int owner = routers[homeNode].ownerOf(roomId);
+                    transport.send(homeNode, owner, roomId, null, "ANSWER:" + System.nanoTime());
+                }
+                nextTick += 10_000_000L;
+                LockSupport.parkNanos(Math.max(0, nextTick - System.nanoTime()));
+            }
+            Thread.sleep(200);  // 밀린 이벤트 처리
+            return percentile(new ArrayList<>(latencies), 0.99);
+        }
+
+        // 시뮬레이션에서는 세션 id 자리에 방 id를 싣는다
+        void deliver(int roomId, String message) {
+            RoomActor room = rooms.get(roomId);
+            long sentAt = Long.parseLong(message.substring("ANSWER:".length()));
+            room.tell(() -> {
+                LockSupport.parkNanos(serviceNanos);
+                latencies.add(System.nanoTime() - sentAt);
+            });
+        }
+
+        void shutdown() {
+            transportExecutor.shutdownNow();
+            for (ExecutorService executor : nodeExecutors) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static double percentile(List<Long> nanos, double p) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(nanos);
+        int index = (int) Math.min(nanos.size() - 1, Math.ceil(p * nanos.size()) - 1);
+        return nanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,153 @@
+package tools;
+
+import model.Quiz;
+import server.GPTCircuitBreaker;
+import server.GPTConnector;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// GPT 모드 방 N개가 동시에 퀴즈를 준비하는 상황을 StubGPTServer를 상대로 재현하는 벤치마크
+// 방마다 GameManager.initializeGPTQuizzes()와 같은 순서로 generateQuiz → parseQuizResponse를 반복하고
+// 첫 문제까지 걸린 시간, 전체 준비 시간, 처리량을 출력한다.
+//
+// 사용 예: java tools.GPTLoadBenchmark --rooms=50 --questions=5 --latency=400 --jitter=200
+//          --distribution=UNIFORM --errorRate=0.05 --padding=2000 --stream=true
+// --url 을 주면 스텁 서버를 띄우지 않고 해당 엔드포인트를 사용한다.
+public class GPTLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int rooms = Integer.parseInt(options.getOrDefault("rooms", "20"));
+        int questions = Integer.parseInt(options.getOrDefault("questions", "5"));
+        long latency = Long.parseLong(options.getOrDefault("latency", "300"));
+        long jitter = Long.parseLong(options.getOrDefault("jitter", "100"));
+        StubGPTServer.LatencyDistribution distribution =
+                StubGPTServer.LatencyDistribution.valueOf(options.getOrDefault("distribution", "UNIFORM"));
+        double errorRate = Double.parseDouble(options.getOrDefault("errorRate", "0"));
+        int padding = Integer.parseInt(options.getOrDefault("padding", "0"));
+        boolean stream = Boolean.parseBoolean(options.getOrDefault("stream", "false"));
+        int timeout = Integer.parseInt(options.getOrDefault("timeout", "10000"));
+
+        StubGPTServer stub = null;
+        String url = options.get("url");
+        if (url == null) {
+            stub = new StubGPTServer(0)
+                    .setLatency(distribution, latency, jitter)
+                    .setErrorRate(errorRate)
+                    .setPaddingBytes(padding);
+            stub.start();
+            url = stub.getUrl();
+        }
+
+        System.out.printf("rooms=%d questions=%d latency=%dms(%s ±%d) errorRate=%.2f padding=%dB stream=%b%n",
+                rooms, questions, latency, distribution, jitter, errorRate, padding, stream);
+
+        GPTCircuitBreaker circuitBreaker = new GPTCircuitBreaker();
+        ExecutorService executor = Executors.newFixedThreadPool(rooms);
+        ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<RoomResult>> futures = new ArrayList<>();
+        for (int r = 0; r < rooms; r++) {
+            GPTConnector connector = new GPTConnector(url, stream, circuitBreaker, deadlines);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                return assembleRoom(connector, questions, timeout);
+            }));
+        }
+
+        long benchStart = System.nanoTime();
+        startSignal.countDown();
+        List<RoomResult> results = new ArrayList<>();
+        for (Future<RoomResult> future : futures) {
+            results.add(future.get());
+        }
+        long benchNanos = System.nanoTime() - benchStart;
+        executor.shutdown();
+        deadlines.shutdownNow();
+
+        if (stub != null) {
+            stub.stop();
+        }
+        report(results, benchNanos, circuitBreaker, stub);
+    }
+
+    private static class RoomResult {
+        long firstQuestionNanos = -1;
+        long totalNanos;
+        int generated;
+        int failed;
+    }
+
+    private static RoomResult assembleRoom(GPTConnector connector, int questions, int timeout) {
+        RoomResult result = new RoomResult();
+        long start = System.nanoTime();
+        for (int i = 0; i < questions; i++) {
+            GPTConnector.QuizDraft draft = new GPTConnector.QuizDraft();
+            String response = connector.generateQuiz("통합", timeout, draft);
+            Quiz quiz = response == null ? draft.toQuiz() : connector.parseQuizResponse(response);
+            if (quiz == null) {
+                result.failed++;
+                continue;
+            }
+            result.generated++;
+            if (result.firstQuestionNanos < 0) {
+                result.firstQuestionNanos = System.nanoTime() - start;
+            }
+        }
+        result.totalNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void report(List<RoomResult> results, long benchNanos,
+                               GPTCircuitBreaker circuitBreaker, StubGPTServer stub) {
+        List<Long> firstQuestion = new ArrayList<>();
+        List<Long> total = new ArrayList<>();
+        long generated = 0;
+        long failed = 0;
+        for (RoomResult result : results) {
+            if (result.firstQuestionNanos >= 0) {
+                firstQuestion.add(result.firstQuestionNanos);
+            }
+            total.add(result.totalNanos);
+            generated += result.generated;
+            failed += result.failed;
+        }
+
+        System.out.println("time-to-first-question " + percentiles(firstQuestion));
+        System.out.println("total-assembly         " + percentiles(total));
+        System.out.printf("throughput             %.1f questions/s (generated=%d failed=%d, wall=%.2fs)%n",
+                generated / (benchNanos / 1e9), generated, failed, benchNanos / 1e9);
+        System.out.println("circuit-breaker        " + circuitBreaker.snapshot());
+        if (stub != null) {
+            System.out.println("stub                   requests=" + stub.getRequestCount()
+                    + " errors=" + stub.getErrorCount());
+        }
+    }
+
+    private static String percentiles(List<Long> nanos) {
+        if (nanos.isEmpty()) {
+            return "n=0";
+        }
+        Collections.sort(nanos);
+        return String.format("n=%d p50=%dms p95=%dms p99=%dms max=%dms", nanos.size(),
+                toMillis(nanos, 0.50), toMillis(nanos, 0.95), toMillis(nanos, 0.99),
+                nanos.get(nanos.size() - 1) / 1_000_000);
+    }
+
+    private static long toMillis(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
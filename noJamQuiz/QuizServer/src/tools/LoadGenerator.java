@@ -0,0 +1,533 @@
+package tools;
+
+import model.QuestionDTO;
+import model.QuizDataDAO;
+import model.RPS;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 화면 없이 가짜 플레이어 수천 명으로 실제 서버에 부하를 거는 도구
+// QuizClient와 같은 프로토콜(ID:, CREATE_ROOM:, JOIN_ROOM:, START_GAME:, MODE_CHOICE:, ANSWER:)을 쓰고
+// BATCH: 묶음과 "[방 n] " 접두사도 클라이언트처럼 풀어서 처리한다.
+// 방마다 첫 플레이어가 방장이 되어 방을 만들고, 나머지가 다 들어오면 일반 모드로 게임을 시작한다.
+// 문제를 받으면 생각 시간(--thinkMin ~ --thinkMax) 뒤에 --correct 확률로 정답을 보낸다.
+// 정답은 서버와 같은 문제 파일(src/Data/Quiz1.dat)에서 찾으므로 작업 디렉터리는 noJamQuiz/QuizServer 로 둔다.
+//
+// 측정: 접속/핸드셰이크 성공 수, 답변 → 내 SCORE(정답)/오답 안내까지의 지연 분포, 플레이어별 초당 송수신 메시지 수
+// 사용 예: java tools.LoadGenerator --port=9999 --rooms=100 --playersPerRoom=10 --questions=5 --seconds=10
+//          --thinkMin=500 --thinkMax=4000 --correct=0.7 --connectRate=40 --timeout=300
+// 서버의 접속 속도 제한(기본 초당 50)보다 --connectRate를 높이려면 서버를 -Dserver.acceptPerSecond=... 로 띄운다.
+public class LoadGenerator {
+    private static final String SAFETY_ANSWER = "모름";
+    private static final long ANSWER_MARGIN_MILLIS = 300;     // 마감 직전이면 다음 문제에 잘못 들어갈 수 있어 보내지 않는다
+
+    private final String host;
+    private final int port;
+    private final int questions;
+    private final int secondsPerQuestion;
+    private final long thinkMin;
+    private final long thinkMax;
+    private final double correctRate;
+    private final Map<String, String> answers;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch finished;
+
+    // 결과 집계
+    private final AtomicLong connectAttempts = new AtomicLong();
+    private final AtomicLong connected = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong handshaken = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong joinFailed = new AtomicLong();
+    private final AtomicLong gamesStarted = new AtomicLong();
+    private final AtomicLong gamesEnded = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong answersSent = new AtomicLong();
+    private final AtomicLong answersSkipped = new AtomicLong();
+    private final AtomicLong answersUnresolved = new AtomicLong();
+    private final AtomicLong unknownQuestions = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final Queue<Long> scoreLatencies = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> wrongLatencies = new ConcurrentLinkedQueue<>();
+    private final List<Player> players = new ArrayList<>();
+
+    public LoadGenerator(Map<String, String> options, Map<String, String> answers, int playerCount) {
+        this.host = options.getOrDefault("host", "localhost");
+        this.port = Integer.parseInt(options.getOrDefault("port", "9999"));
+        this.questions = Integer.parseInt(options.getOrDefault("questions", "5"));
+        this.secondsPerQuestion = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        this.thinkMin = Long.parseLong(options.getOrDefault("thinkMin", "500"));
+        this.thinkMax = Math.max(thinkMin, Long.parseLong(options.getOrDefault("thinkMax", "4000")));
+        this.correctRate = Double.parseDouble(options.getOrDefault("correct", "0.7"));
+        this.answers = answers;
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "load-think");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.finished = new CountDownLatch(playerCount);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int rooms = Integer.parseInt(options.getOrDefault("rooms", "20"));
+        int playersPerRoom = Integer.parseInt(options.getOrDefault("playersPerRoom", "8"));
+        double connectRate = Double.parseDouble(options.getOrDefault("connectRate", "40"));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeout", "300"));
+
+        Map<String, String> answers = loadAnswers();
+        LoadGenerator generator = new LoadGenerator(options, answers, rooms * playersPerRoom);
+        System.out.printf("server=%s:%d rooms=%d players/room=%d questions=%d seconds=%d think=%d~%dms correct=%.2f connectRate=%.0f/s%n",
+                generator.host, generator.port, rooms, playersPerRoom, generator.questions, generator.secondsPerQuestion,
+                generator.thinkMin, generator.thinkMax, generator.correctRate, connectRate);
+        System.out.println("정답을 아는 문제 " + answers.size() + "개");
+
+        long start = System.nanoTime();
+        generator.connectAll(rooms, playersPerRoom, connectRate);
+        long connectNanos = System.nanoTime() - start;
+        boolean done = generator.finished.await(timeoutSeconds, TimeUnit.SECONDS);
+        long wallNanos = System.nanoTime() - start;
+        if (!done) {
+            System.out.println("제한 시간(" + timeoutSeconds + "초) 안에 끝나지 않은 플레이어 " + generator.finished.getCount() + "명");
+        }
+        generator.shutdown();
+        generator.report(connectNanos, wallNanos);
+    }
+
+    // 문제 파일의 문제 → 정답. 서버가 QUIZ:에 넣는 문장과 같은 키로 찾는다.
+    private static Map<String, String> loadAnswers() {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        QuizDataDAO quizData = new QuizDataDAO();
+        boolean loadError = quizData.loadQuiz(1);
+        System.setOut(console);
+        Map<String, String> answers = new HashMap<>();
+        if (loadError) {
+            System.out.println("문제 파일을 읽지 못했습니다. 모든 답변이 오답으로 처리됩니다.");
+            return answers;
+        }
+        for (QuestionDTO question : quizData) {
+            answers.put(question.getQuestion(), question.getAnswer());
+        }
+        return answers;
+    }
+
+    // 방 단위로 플레이어를 만들고 --connectRate에 맞춰 순서대로 접속시킨다 (방장이 먼저)
+    private void connectAll(int rooms, int playersPerRoom, double connectRate) throws InterruptedException {
+        long intervalNanos = (long) (1_000_000_000L / connectRate);
+        long next = System.nanoTime();
+        for (int r = 0; r < rooms; r++) {
+            SimRoom room = new SimRoom("load" + r, playersPerRoom);
+            for (int p = 0; p < playersPerRoom; p++) {
+                Player player = new Player(room, "r" + r + "p" + p, p == 0);
+                players.add(player);
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                next += intervalNanos;
+                player.connect();
+            }
+        }
+    }
+
+    private void shutdown() {
+        scheduler.shutdownNow();
+        for (Player player : players) {
+            player.close();
+        }
+    }
+
+    private void report(long connectNanos, long wallNanos) {
+        List<Double> inRates = new ArrayList<>();
+        List<Double> outRates = new ArrayList<>();
+        long framesIn = 0;
+        long messagesIn = 0;
+        long messagesOut = 0;
+        for (Player player : players) {
+            framesIn += player.framesIn;
+            messagesIn += player.messagesIn;
+            messagesOut += player.messagesOut;
+            double seconds = player.activeNanos() / 1e9;
+            if (seconds > 0) {
+                inRates.add(player.messagesIn / seconds);
+                outRates.add(player.messagesOut / seconds);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("connections      attempted=%d connected=%d handshaken=%d refused/failed=%d (connect phase %.1fs)%n",
+                connectAttempts.get(), connected.get(), handshaken.get(), refused.get(), connectNanos / 1e9);
+        System.out.printf("rooms            joined=%d joinFailed=%d gamesStarted=%d gamesEnded=%d disconnected=%d%n",
+                joined.get(), joinFailed.get(), gamesStarted.get(), gamesEnded.get(), disconnected.get());
+        System.out.printf("answers          sent=%d skipped(late)=%d noResult=%d unknownQuestion=%d rateLimited=%d%n",
+                answersSent.get(), answersSkipped.get(), answersUnresolved.get(), unknownQuestions.get(), rateLimited.get());
+        System.out.println("answer->score    " + percentiles(new ArrayList<>(scoreLatencies)));
+        System.out.println("answer->wrong    " + percentiles(new ArrayList<>(wrongLatencies)));
+        System.out.println("msgs in/player/s " + rates(inRates));
+        System.out.println("msgs out/player/s " + rates(outRates));
+        System.out.printf("totals           in=%d msgs (%d frames, %.2f msgs/frame) out=%d msgs, %.0f msgs/s in over %.1fs%n",
+                messagesIn, framesIn, framesIn == 0 ? 0 : messagesIn / (double) framesIn, messagesOut,
+                messagesIn / (wallNanos / 1e9), wallNanos / 1e9);
+    }
+
+    private static String percentiles(List<Long> nanos) {
+        if (nanos.isEmpty()) {
+            return "n=0";
+        }
+        Collections.sort(nanos);
+        return String.format("n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms", nanos.size(),
+                toMillis(nanos, 0.50), toMillis(nanos, 0.95), toMillis(nanos, 0.99),
+                nanos.get(nanos.size() - 1) / 1e6);
+    }
+
+    private static double toMillis(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static String rates(List<Double> rates) {
+        if (rates.isEmpty()) {
+            return "n=0";
+        }
+        Collections.sort(rates);
+        return String.format("n=%d p50=%.2f p99=%.2f max=%.2f", rates.size(),
+                rates.get(Math.max(0, (int) Math.ceil(0.50 * rates.size()) - 1)),
+                rates.get(Math.max(0, (int) Math.ceil(0.99 * rates.size()) - 1)),
+                rates.get(rates.size() - 1));
+    }
+
+    // 방 하나: 방장이 방을 만들면 기다리던 플레이어를 들여보내고, 모두 들어오거나 실패하면 게임을 시작한다
+    private class SimRoom {
+        final String name;
+        final int size;
+        final List<Player> waiting = new ArrayList<>();
+        Player host;
+        int roomId = -1;
+        int settled;        // 입장했거나 실패한 손님 수
+        int guestsIn;
+        boolean failed;
+        boolean started;
+
+        SimRoom(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        synchronized void created(Player host, int roomId) {
+            this.host = host;
+            this.roomId = roomId;
+            for (Player guest : waiting) {
+                guest.send("JOIN_ROOM:" + roomId);
+            }
+            waiting.clear();
+            maybeStart();
+        }
+
+        // 방장이 접속/방 생성에 실패하면 이 방의 손님은 할 일이 없다
+        synchronized void hostFailed() {
+            failed = true;
+            for (Player guest : waiting) {
+                guest.finish();
+            }
+            waiting.clear();
+        }
+
+        synchronized void guestReady(Player guest) {
+            if (failed) {
+                guest.finish();
+            } else if (roomId >= 0) {
+                guest.send("JOIN_ROOM:" + roomId);
+            } else {
+                waiting.add(guest);
+            }
+        }
+
+        synchronized void guestSettled(boolean in) {
+            settled++;
+            if (in) {
+                guestsIn++;
+            }
+            maybeStart();
+        }
+
+        private void maybeStart() {
+            if (!started && roomId >= 0 && settled >= size - 1) {
+                started = true;
+                if (guestsIn >= 1) {
+                    host.send("START_GAME:" + roomId);
+                } else {
+                    host.finish();  // 혼자서는 시작할 수 없다
+                }
+            }
+        }
+    }
+
+    // 플레이어 하나: 소켓 하나와 읽기 스레드 하나. 쓰기는 읽기 스레드와 생각 시간 타이머가 나눠 쓰므로 동기화한다.
+    private class Player implements Runnable {
+        final SimRoom room;
+        final String name;
+        final boolean isHost;
+        final String scorePrefix;
+        final String wrongNotice;
+        Socket socket;
+        ObjectOutputStream out;
+        ObjectInputStream in;
+        volatile boolean done;
+        long connectedAt;
+        volatile long lastMessageAt;
+        long framesIn;
+        long messagesIn;
+        long messagesOut;
+        volatile long pendingAnswerAt;      // 결과를 기다리는 답변을 보낸 시각 (0이면 없음)
+        volatile int quizSeq;
+
+        Player(SimRoom room, String name, boolean isHost) {
+            this.room = room;
+            this.name = name;
+            this.isHost = isHost;
+            this.scorePrefix = "SCORE:" + name + ":";
+            this.wrongNotice = name + "님 오답입니다.";
+        }
+
+        void connect() {
+            connectAttempts.incrementAndGet();
+            try {
+                socket = new Socket(host, port);
+                socket.setTcpNoDelay(true);
+                out = new ObjectOutputStream(socket.getOutputStream());
+                out.flush();
+                // 서버가 접속 제한으로 바로 닫으면 여기서 스트림 헤더를 못 읽는다
+                in = new ObjectInputStream(socket.getInputStream());
+            } catch (IOException e) {
+                refused.incrementAndGet();
+                if (isHost) {
+                    room.hostFailed();
+                }
+                finish();
+                close();
+                return;
+            }
+            connected.incrementAndGet();
+            connectedAt = System.nanoTime();
+            Thread reader = new Thread(null, this, "load-" + name, 256 * 1024);
+            reader.setDaemon(true);
+            reader.start();
+            send("ID:" + name);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // QUIT 뒤에도 서버가 닫을 때까지 읽어서 버린다 (읽지 않은 채 닫으면 RST로 QUIT가 유실될 수 있음)
+                while (true) {
+                    Object received = in.readObject();
+                    if (!(received instanceof String) || done) {
+                        continue;
+                    }
+                    String frame = (String) received;
+                    framesIn++;
+                    lastMessageAt = System.nanoTime();
+                    if (frame.startsWith("BATCH:")) {
+                        for (String message : unpackBatch(frame)) {
+                            handle(message);
+                        }
+                    } else {
+                        handle(frame);
+                    }
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                if (!done) {
+                    disconnected.incrementAndGet();
+                    if (isHost && room.roomId < 0) {
+                        room.hostFailed();
+                    }
+                }
+            } finally {
+                finish();
+                close();
+            }
+        }
+
+        private void handle(String message) {
+            messagesIn++;
+            if (message.startsWith("[방 ")) {
+                int end = message.indexOf("] ");
+                if (end > 0) {
+                    message = message.substring(end + 2);
+                }
+            }
+
+            if (message.startsWith("SESSION:")) {
+                handshaken.incrementAndGet();
+                if (isHost) {
+                    send("CREATE_ROOM:" + room.name + ",통합," + room.size + "," + questions + "," + secondsPerQuestion);
+                } else {
+                    room.guestReady(this);
+                }
+            } else if (message.startsWith("JOIN_ROOM:")) {
+                joined.incrementAndGet();
+                if (isHost) {
+                    room.created(this, Integer.parseInt(message.substring(10)));
+                } else {
+                    room.guestSettled(true);
+                }
+            } else if (message.startsWith("방 참가 실패") || message.startsWith("방 생성")) {
+                joinFailed.incrementAndGet();
+                if (isHost) {
+                    room.hostFailed();
+                } else {
+                    room.guestSettled(false);
+                }
+                finish();
+            } else if (message.equals("SELECT_MODE")) {
+                gamesStarted.incrementAndGet();
+                send("MODE_CHOICE:NORMAL");
+            } else if (message.startsWith("QUIZ:")) {
+                onQuiz(message);
+            } else if (message.startsWith(scorePrefix)) {
+                resolveAnswer(scoreLatencies);
+            } else if (message.equals(wrongNotice) || message.equals("오답입니다.")) {
+                resolveAnswer(wrongLatencies);
+            } else if (message.startsWith("RPS_START:")) {
+                if (Arrays.asList(message.substring(10).split(",")).contains(name)) {
+                    RPS[] choices = RPS.values();
+                    send("RPS_CHOICE:" + choices[ThreadLocalRandom.current().nextInt(choices.length)].name());
+                }
+            } else if (message.startsWith("GAME_END:")) {
+                if (isHost) {
+                    gamesEnded.incrementAndGet();
+                }
+                finish();
+            } else if (message.startsWith("메시지를 너무 빠르게")) {
+                rateLimited.incrementAndGet();
+            }
+        }
+
+        // QUIZ:<마감시각>,<서버시각>:<문제>
+        private void onQuiz(String message) {
+            if (pendingAnswerAt != 0) {
+                answersUnresolved.incrementAndGet();    // 지난 문제 결과를 못 받고 다음 문제가 왔다
+                pendingAnswerAt = 0;
+            }
+            int comma = message.indexOf(',');
+            int colon = message.indexOf(':', comma);
+            long remaining = Long.parseLong(message.substring(5, comma)) - Long.parseLong(message.substring(comma + 1, colon));
+            String answer = answerFor(message.substring(colon + 1));
+
+            long think = thinkMin + ThreadLocalRandom.current().nextLong(thinkMax - thinkMin + 1);
+            if (think > remaining - ANSWER_MARGIN_MILLIS) {
+                answersSkipped.incrementAndGet();
+                return;
+            }
+            int seq = ++quizSeq;
+            scheduler.schedule(() -> {
+                if (seq == quizSeq && !done) {
+                    pendingAnswerAt = System.nanoTime();
+                    answersSent.incrementAndGet();
+                    send("ANSWER:" + answer);
+                }
+            }, think, TimeUnit.MILLISECONDS);
+        }
+
+        private String answerFor(String quizText) {
+            if (ThreadLocalRandom.current().nextDouble() >= correctRate) {
+                return SAFETY_ANSWER;
+            }
+            String answer = answers.get(questionOf(quizText));
+            if (answer == null) {
+                unknownQuestions.incrementAndGet();
+                return SAFETY_ANSWER;
+            }
+            return answer;
+        }
+
+        private void resolveAnswer(Queue<Long> latencies) {
+            long sentAt = pendingAnswerAt;
+            if (sentAt != 0) {
+                pendingAnswerAt = 0;
+                latencies.add(System.nanoTime() - sentAt);
+            }
+        }
+
+        void send(String message) {
+            try {
+                synchronized (this) {
+                    out.writeObject(message);
+                    out.flush();
+                    messagesOut++;
+                }
+            } catch (IOException e) {
+                finish();
+            }
+        }
+
+        // 한 번만 카운트다운한다
+        void finish() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            if (out != null) {
+                send("QUIT");
+                try {
+                    socket.shutdownOutput();
+                } catch (IOException ignored) {
+                }
+            }
+            finished.countDown();
+        }
+
+        void close() {
+            try {
+                if (socket != null) {
+                    socket.close();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        long activeNanos() {
+            return connectedAt == 0 || lastMessageAt == 0 ? 0 : lastMessageAt - connectedAt;
+        }
+    }
+
+    // "[단답형] [일반상식] <문제> (10점) [제한시간: 10초]" 에서 <문제>만 꺼낸다 (Quiz.toString 형식)
+    static String questionOf(String quizText) {
+        int start = quizText.indexOf("] ", quizText.indexOf("] ") + 2) + 2;
+        int end = quizText.lastIndexOf(" (", quizText.lastIndexOf("점)"));
+        return start >= 2 && end >= start ? quizText.substring(start, end) : quizText;
+    }
+
+    // 서버 MessageBatch 형식: BATCH:<개수>\n<길이>:<메시지>...
+    static List<String> unpackBatch(String batch) {
+        int newline = batch.indexOf('\n');
+        int count = Integer.parseInt(batch.substring(6, newline));
+        List<String> messages = new ArrayList<>(count);
+        int pos = newline + 1;
+        for (int i = 0; i < count; i++) {
+            int colon = batch.indexOf(':', pos);
+            int length = Integer.parseInt(batch.substring(pos, colon));
+            messages.add(batch.substring(colon + 1, colon + 1 + length));
+            pos = colon + 1 + length;
+        }
+        return messages;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
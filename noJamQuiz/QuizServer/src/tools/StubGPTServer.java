@@ -0,0 +1,183 @@
+package tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// OpenAI Chat Completions 형식으로 응답하는 로컬 스텁 서버
+// 실제 API 없이 GPT 경로를 부하 테스트할 때 사용한다. 지연 시간 분포, 오류율, 응답 크기를 설정할 수 있다.
+public class StubGPTServer {
+    public enum LatencyDistribution { FIXED, UNIFORM, EXPONENTIAL }
+
+    private final int port;
+    private long latencyMillis = 500;                   // 평균(기준) 지연 시간
+    private long jitterMillis = 0;                      // UNIFORM일 때 ± 범위
+    private LatencyDistribution distribution = LatencyDistribution.FIXED;
+    private double errorRate = 0.0;                     // 0~1, 이 비율만큼 500 응답
+    private int paddingBytes = 0;                       // 응답에 덧붙이는 여분 크기
+    private int streamChunkChars = 4;                   // stream 응답에서 delta 하나의 글자 수
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private final Random random = new Random();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong questionCounter = new AtomicLong();
+
+    public StubGPTServer(int port) {
+        this.port = port;
+    }
+
+    public StubGPTServer setLatency(LatencyDistribution distribution, long latencyMillis, long jitterMillis) {
+        this.distribution = distribution;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    public StubGPTServer setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public StubGPTServer setPaddingBytes(int paddingBytes) {
+        this.paddingBytes = paddingBytes;
+        return this;
+    }
+
+    public StubGPTServer setStreamChunkChars(int streamChunkChars) {
+        this.streamChunkChars = Math.max(1, streamChunkChars);
+        return this;
+    }
+
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        httpServer.createContext("/v1/chat/completions", this::handle);
+        executor = Executors.newCachedThreadPool();
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        System.out.println("Stub GPT 서버가 시작되었습니다: " + getUrl());
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public String getUrl() {
+        int boundPort = httpServer != null ? httpServer.getAddress().getPort() : port;
+        return "http://127.0.0.1:" + boundPort + "/v1/chat/completions";
+    }
+
+    public long getRequestCount() { return requestCount.get(); }
+    public long getErrorCount() { return errorCount.get(); }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        String requestBody;
+        try (InputStream is = exchange.getRequestBody()) {
+            requestBody = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        boolean stream = requestBody.replace(" ", "").contains("\"stream\":true");
+
+        try {
+            Thread.sleep(nextLatency());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+
+        if (random.nextDouble() < errorRate) {
+            errorCount.incrementAndGet();
+            send(exchange, 500, "application/json",
+                    "{\"error\":{\"message\":\"stub error\",\"type\":\"server_error\"}}");
+            return;
+        }
+
+        long n = questionCounter.incrementAndGet();
+        String content = "질문: 스텁 문제 " + n + "번의 정답은?\n답변: 정답" + n;
+        if (stream) {
+            sendStream(exchange, content);
+        } else {
+            send(exchange, 200, "application/json", completion(content));
+        }
+    }
+
+    private long nextLatency() {
+        switch (distribution) {
+            case UNIFORM:
+                return Math.max(0, latencyMillis - jitterMillis + (long) (random.nextDouble() * 2 * jitterMillis));
+            case EXPONENTIAL:
+                return (long) (-latencyMillis * Math.log(1 - random.nextDouble()));
+            default:
+                return latencyMillis;
+        }
+    }
+
+    private String completion(String content) {
+        return "{\"id\":\"chatcmpl-stub\",\"object\":\"chat.completion\",\"model\":\"stub\"," +
+                "\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" +
+                escape(content) + "\"},\"finish_reason\":\"stop\"}]," +
+                "\"usage\":{\"prompt_tokens\":0,\"completion_tokens\":0,\"total_tokens\":0}" +
+                padding() + "}";
+    }
+
+    private void sendStream(HttpExchange exchange, String content) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            for (int i = 0; i < content.length(); i += streamChunkChars) {
+                String delta = content.substring(i, Math.min(content.length(), i + streamChunkChars));
+                String chunk = "data: {\"id\":\"chatcmpl-stub\",\"object\":\"chat.completion.chunk\"," +
+                        "\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + escape(delta) + "\"}}]" +
+                        (i == 0 ? padding() : "") + "}\n\n";
+                os.write(chunk.getBytes(StandardCharsets.UTF_8));
+                os.flush();
+            }
+            os.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String padding() {
+        if (paddingBytes <= 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(",\"padding\":\"");
+        for (int i = 0; i < paddingBytes; i++) {
+            sb.append('x');
+        }
+        return sb.append('"').toString();
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        StubGPTServer stub = new StubGPTServer(port)
+                .setLatency(LatencyDistribution.UNIFORM, 500, 200);
+        stub.start();
+    }
+}